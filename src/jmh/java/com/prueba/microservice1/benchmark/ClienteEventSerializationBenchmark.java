@@ -0,0 +1,59 @@
+package com.prueba.microservice1.benchmark;
+
+import com.prueba.microservice1.kafka.BinaryClienteEventCodec;
+import com.prueba.microservice1.kafka.ClienteEvent;
+import com.prueba.microservice1.kafka.JsonClienteEventCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de serialización de ClienteEvent con los formatos del producer
+ * (kafka.event-format=json | binary).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ClienteEventSerializationBenchmark {
+
+    private JsonClienteEventCodec jsonCodec;
+    private BinaryClienteEventCodec binaryCodec;
+    private ClienteEvent event;
+    private byte[] jsonPayload;
+    private byte[] binaryPayload;
+
+    @Setup
+    public void setUp() {
+        jsonCodec = new JsonClienteEventCodec();
+        binaryCodec = new BinaryClienteEventCodec();
+        event = ClienteEvent.updated(123456L, "Marianela Montalvo", "1234567891", "True");
+        jsonPayload = jsonCodec.encode(event);
+        binaryPayload = binaryCodec.encode(event);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return jsonCodec.encode(event);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return binaryCodec.encode(event);
+    }
+
+    @Benchmark
+    public ClienteEvent jsonDecode() {
+        return jsonCodec.decode(jsonPayload);
+    }
+
+    @Benchmark
+    public ClienteEvent binaryDecode() {
+        return binaryCodec.decode(binaryPayload);
+    }
+}
@@ -0,0 +1,71 @@
+package com.prueba.microservice1.benchmark;
+
+import com.prueba.microservice1.dto.ClienteDTO;
+import com.prueba.microservice1.dto.ClienteResponseDTO;
+import com.prueba.microservice1.entity.Cliente;
+import com.prueba.microservice1.mapper.ClienteMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de las conversiones entre Cliente y sus DTOs.
+ * Con el profiler gc, gc.alloc.rate.norm reporta bytes asignados por operación.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ClienteMapperBenchmark {
+
+    private ClienteMapper mapper;
+    private ClienteDTO dto;
+    private Cliente cliente;
+
+    private String nombre;
+    private String identificacion;
+    private String estado;
+
+    @Setup
+    public void setUp() {
+        mapper = new ClienteMapper();
+        nombre = "  Jose Lema  ";
+        identificacion = "1234567890";
+        estado = "true";
+        dto = new ClienteDTO(null, "Jose Lema", "M", 30, identificacion,
+                "Otavalo sn y principal", "098254785", "1234", "True");
+        cliente = mapper.toEntity(dto);
+        cliente.setId(1L);
+    }
+
+    @Benchmark
+    public Cliente toEntity() {
+        return mapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public ClienteResponseDTO toResponseDTO() {
+        return mapper.toResponseDTO(cliente);
+    }
+
+    @Benchmark
+    public Cliente updateEntityFromDTO() {
+        return mapper.updateEntityFromDTO(cliente, dto);
+    }
+
+    @Benchmark
+    public ClienteDTO dtoCompactConstructor() {
+        return new ClienteDTO(null, nombre, "M", 30, identificacion,
+                "Otavalo sn y principal", "098254785", "1234", estado);
+    }
+
+    @Benchmark
+    public ClienteResponseDTO responseDtoFromEntity() {
+        return ClienteResponseDTO.fromEntity(cliente);
+    }
+}
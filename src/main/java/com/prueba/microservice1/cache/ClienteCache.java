@@ -0,0 +1,140 @@
+package com.prueba.microservice1.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prueba.microservice1.dto.ClienteResponseDTO;
+import com.prueba.microservice1.util.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache en memoria (read-through) de ClienteResponseDTO por id y por identificación,
+ * más un cache negativo de ids inexistentes con TTL corto.
+ * Acotado por tamaño y TTL; las métricas de hit/miss/eviction se publican en Micrometer.
+ * Las escrituras se aplican después del commit para no exponer datos de
+ * transacciones que hacen rollback.
+ */
+@Component
+public class ClienteCache {
+
+    private final Cache<Long, ClienteResponseDTO> byId;
+    private final Cache<String, ClienteResponseDTO> byIdentificacion;
+    private final Cache<Long, Boolean> missingIds;
+
+    public ClienteCache(MeterRegistry meterRegistry,
+                        @Value("${clientes.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${clientes.cache.ttl:10m}") Duration ttl,
+                        @Value("${clientes.cache.negative-ttl:5s}") Duration negativeTtl) {
+        this.byId = newCache(maximumSize, ttl);
+        this.byIdentificacion = newCache(maximumSize, ttl);
+        this.missingIds = newCache(maximumSize, negativeTtl);
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "clientes-by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, byIdentificacion, "clientes-by-identificacion");
+        CaffeineCacheMetrics.monitor(meterRegistry, missingIds, "clientes-missing");
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene cliente por id; en caso de miss lo carga con el loader.
+     * Un id inexistente queda en el cache negativo hasta su TTL o hasta que se cree.
+     */
+    public Optional<ClienteResponseDTO> getById(Long id,
+                                                Function<Long, Optional<ClienteResponseDTO>> loader) {
+        ClienteResponseDTO cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (missingIds.getIfPresent(id) != null) {
+            return Optional.empty();
+        }
+        ClienteResponseDTO loaded = byId.get(id, key -> loader.apply(key).orElse(null));
+        if (loaded == null) {
+            missingIds.put(id, Boolean.TRUE);
+        }
+        return Optional.ofNullable(loaded);
+    }
+
+    /**
+     * Indica si el id está en el cache negativo.
+     */
+    public boolean isKnownMissing(Long id) {
+        return missingIds.getIfPresent(id) != null;
+    }
+
+    /**
+     * Registra un id inexistente en el cache negativo.
+     */
+    public void markMissing(Long id) {
+        missingIds.put(id, Boolean.TRUE);
+    }
+
+    /**
+     * Cliente cacheado por id, sin cargarlo en caso de miss.
+     */
+    public Optional<ClienteResponseDTO> peekById(Long id) {
+        return Optional.ofNullable(byId.getIfPresent(id));
+    }
+
+    /**
+     * Obtiene cliente por identificación; en caso de miss lo carga con el loader.
+     */
+    public Optional<ClienteResponseDTO> getByIdentificacion(String identificacion,
+                                                            Function<String, Optional<ClienteResponseDTO>> loader) {
+        return Optional.ofNullable(byIdentificacion.get(identificacion, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Guarda el estado actualizado del cliente después del commit.
+     */
+    public void refresh(ClienteResponseDTO cliente) {
+        TransactionCallbacks.afterCommit(() -> {
+            missingIds.invalidate(cliente.id());
+            byId.put(cliente.id(), cliente);
+            if (cliente.identificacion() != null) {
+                byIdentificacion.put(cliente.identificacion(), cliente);
+            }
+        });
+    }
+
+    /**
+     * Guarda clientes leídos de la base de datos sin pisar una entrada existente,
+     * que puede venir de una escritura más reciente. Un id en el cache negativo se
+     * omite: la fila se leyó antes de un DELETE que ya hizo commit.
+     */
+    public void putIfAbsent(List<ClienteResponseDTO> clientes) {
+        for (ClienteResponseDTO cliente : clientes) {
+            byId.asMap().compute(cliente.id(), (id, existing) ->
+                    existing != null || missingIds.getIfPresent(id) != null ? existing : cliente);
+        }
+    }
+
+    /**
+     * Invalida las entradas del cliente después del commit.
+     * Los ids salen de una secuencia y no se reutilizan, así que un id
+     * eliminado pasa directamente al cache negativo.
+     */
+    public void evict(Long id, String identificacion) {
+        TransactionCallbacks.afterCommit(() -> {
+            // Primero el cache negativo: un putIfAbsent concurrente lo ve o queda invalidado
+            missingIds.put(id, Boolean.TRUE);
+            byId.invalidate(id);
+            if (identificacion != null) {
+                byIdentificacion.invalidate(identificacion);
+            }
+        });
+    }
+}
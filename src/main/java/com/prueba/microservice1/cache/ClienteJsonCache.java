@@ -0,0 +1,105 @@
+package com.prueba.microservice1.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prueba.microservice1.entity.Cliente;
+import com.prueba.microservice1.util.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache de la entidad Cliente ya serializada a JSON junto con su ETag.
+ * Evita volver a pasar por Jackson en lecturas repetidas de un cliente sin cambios.
+ */
+@Component
+public class ClienteJsonCache {
+
+    private static final int ETAG_BYTES = 16;
+
+    private final Cache<Long, SerializedCliente> cache;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * JSON serializado de un cliente y su ETag fuerte (hash del contenido).
+     */
+    public record SerializedCliente(byte[] body, String etag) {
+
+        /**
+         * Evalúa el header If-None-Match (lista de ETags, "*" o ETags débiles).
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.strip();
+                if (tag.equals("*")) {
+                    return true;
+                }
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public ClienteJsonCache(ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${clientes.cache.maximum-size:10000}") long maximumSize,
+                            @Value("${clientes.cache.ttl:10m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "clientes-entity-json");
+    }
+
+    /**
+     * Obtiene el JSON serializado del cliente; en caso de miss carga y serializa la entidad.
+     */
+    public Optional<SerializedCliente> get(Long id, Function<Long, Optional<Cliente>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).map(this::serialize).orElse(null)));
+    }
+
+    /**
+     * Invalida la entrada del cliente después del commit.
+     */
+    public void evict(Long id) {
+        TransactionCallbacks.afterCommit(() -> cache.invalidate(id));
+    }
+
+    private SerializedCliente serialize(Cliente cliente) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(cliente);
+            return new SerializedCliente(body, etagOf(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error serializando cliente con id: " + cliente.getId(), e);
+        }
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(hash, 0, ETAG_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.prueba.microservice1.cache;
+
+import com.prueba.microservice1.repository.ClienteRepository;
+import com.prueba.microservice1.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom con todas las identificaciones registradas.
+ * Responde negativos definitivos sin consultar la base de datos. Mientras no se
+ * construye responde siempre "puede existir", así nunca da un falso negativo.
+ * Las identificaciones se agregan antes del commit: un rollback solo deja un
+ * falso positivo más, mientras que agregarlas después abriría una ventana
+ * de falsos negativos.
+ */
+@Component
+@Slf4j
+public class IdentificacionFilter {
+
+    private final ClienteRepository clienteRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter negatives;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile BloomFilter filter;
+    private Set<String> pendientes = ConcurrentHashMap.newKeySet();
+
+    public IdentificacionFilter(ClienteRepository clienteRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${clientes.identificacion-filter.expected-insertions:100000}") long expectedInsertions,
+                                @Value("${clientes.identificacion-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.clienteRepository = clienteRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.negatives = Counter.builder("clientes.identificacion.filter.negatives")
+                .description("Consultas por identificación resueltas sin ir a la base de datos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Construye el filtro recorriendo las identificaciones registradas.
+     * Se dimensiona para el doble de lo existente para admitir crecimiento.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        long existentes = clienteRepository.count();
+        BloomFilter nuevo = new BloomFilter(Math.max(expectedInsertions, existentes * 2), falsePositiveRate);
+        lock.writeLock().lock();
+        try {
+            if (pendientes == null) {
+                pendientes = ConcurrentHashMap.newKeySet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<String> identificaciones = clienteRepository.streamAllIdentificaciones()) {
+                identificaciones.forEach(nuevo::put);
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            // Lo agregado mientras se recorría la tabla
+            pendientes.forEach(nuevo::put);
+            pendientes = null;
+            filter = nuevo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Filtro de identificaciones construido: {} clientes, {} bits, {} hashes en {} ms",
+                existentes, nuevo.bitCount(), nuevo.hashFunctions(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Registra una identificación nueva.
+     */
+    public void put(String identificacion) {
+        if (identificacion == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            if (filter != null) {
+                filter.put(identificacion);
+            }
+            if (pendientes != null) {
+                pendientes.add(identificacion);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si la identificación puede estar registrada; false es definitivo.
+     */
+    public boolean mightExist(String identificacion) {
+        BloomFilter current = filter;
+        if (current == null || identificacion == null || current.mightContain(identificacion)) {
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+}
@@ -0,0 +1,28 @@
+package com.prueba.microservice1.config;
+
+import com.prueba.microservice1.repository.ClienteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migra al arrancar los estados libres ("true", "TRUE", " True ", ...) existentes
+ * a los valores canónicos "True" / "False".
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EstadoMigrationRunner implements ApplicationRunner {
+
+    private final ClienteRepository clienteRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int migrados = clienteRepository.normalizarEstados();
+        if (migrados > 0) {
+            log.info("Estados de cliente normalizados: {}", migrados);
+        }
+    }
+}
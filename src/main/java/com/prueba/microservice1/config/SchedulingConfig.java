@@ -0,0 +1,12 @@
+package com.prueba.microservice1.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (relay del outbox).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
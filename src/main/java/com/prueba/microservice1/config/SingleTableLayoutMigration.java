@@ -0,0 +1,117 @@
+package com.prueba.microservice1.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Migra los datos del layout JOINED (persona + cliente) al layout SINGLE_TABLE (solo cliente).
+ * Se registra como inicializador de base de datos, así corre antes de que Hibernate
+ * valide o actualice el esquema. En una base nueva o ya migrada no hace nada.
+ */
+@Component
+@Profile("single-table")
+@Slf4j
+public class SingleTableLayoutMigration extends DataSourceScriptDatabaseInitializer {
+
+    private static final String[] ADD_COLUMNS = {
+            // Un layout JOINED anterior a @Version no tiene la columna en persona
+            "ALTER TABLE persona ADD COLUMN IF NOT EXISTS version BIGINT",
+            "ALTER TABLE cliente ADD COLUMN IF NOT EXISTS dtype VARCHAR(31)",
+            "ALTER TABLE cliente ADD COLUMN IF NOT EXISTS nombre VARCHAR(100)",
+            "ALTER TABLE cliente ADD COLUMN IF NOT EXISTS genero VARCHAR(10)",
+            "ALTER TABLE cliente ADD COLUMN IF NOT EXISTS edad INTEGER DEFAULT 0 NOT NULL",
+            "ALTER TABLE cliente ADD COLUMN IF NOT EXISTS identificacion VARCHAR(255)",
+            "ALTER TABLE cliente ADD COLUMN IF NOT EXISTS direccion VARCHAR(200)",
+            "ALTER TABLE cliente ADD COLUMN IF NOT EXISTS telefono VARCHAR(20)",
+            "ALTER TABLE cliente ADD COLUMN IF NOT EXISTS version BIGINT"
+    };
+
+    private static final String COPY_CLIENTES = "UPDATE cliente c SET dtype = 'Cliente', "
+            + "nombre = (SELECT p.nombre FROM persona p WHERE p.id = c.id), "
+            + "genero = (SELECT p.genero FROM persona p WHERE p.id = c.id), "
+            + "edad = COALESCE((SELECT p.edad FROM persona p WHERE p.id = c.id), 0), "
+            + "identificacion = (SELECT p.identificacion FROM persona p WHERE p.id = c.id), "
+            + "direccion = (SELECT p.direccion FROM persona p WHERE p.id = c.id), "
+            + "telefono = (SELECT p.telefono FROM persona p WHERE p.id = c.id), "
+            + "version = COALESCE((SELECT p.version FROM persona p WHERE p.id = c.id), 0) "
+            + "WHERE c.dtype IS NULL";
+
+    private static final String COPY_PERSONAS = "INSERT INTO cliente "
+            + "(id, dtype, nombre, genero, edad, identificacion, direccion, telefono, version) "
+            + "SELECT p.id, 'Persona', p.nombre, p.genero, p.edad, p.identificacion, p.direccion, p.telefono, "
+            + "COALESCE(p.version, 0) "
+            + "FROM persona p WHERE NOT EXISTS (SELECT 1 FROM cliente c WHERE c.id = p.id)";
+
+    private final DataSource dataSource;
+
+    public SingleTableLayoutMigration(DataSource dataSource) {
+        super(dataSource, new DatabaseInitializationSettings());
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public boolean initializeDatabase() {
+        try {
+            if (!tableExists("persona") || !tableExists("cliente")) {
+                return false;
+            }
+            List<String> foreignKeys = foreignKeysToPersona();
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status -> {
+                foreignKeys.forEach(fk -> jdbc.execute("ALTER TABLE cliente DROP CONSTRAINT " + fk));
+                for (String ddl : ADD_COLUMNS) {
+                    jdbc.execute(ddl);
+                }
+                int clientes = jdbc.update(COPY_CLIENTES);
+                int personas = jdbc.update(COPY_PERSONAS);
+                jdbc.execute("DROP TABLE persona");
+                log.info("Layout SINGLE_TABLE migrado: {} clientes, {} personas", clientes, personas);
+            });
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo migrar al layout SINGLE_TABLE", e);
+        }
+    }
+
+    private boolean tableExists(String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(null, null, identifier(metaData, table), new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        }
+    }
+
+    private List<String> foreignKeysToPersona() throws SQLException {
+        List<String> foreignKeys = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet keys = metaData.getImportedKeys(null, null, identifier(metaData, "cliente"))) {
+                while (keys.next()) {
+                    if ("persona".equalsIgnoreCase(keys.getString("PKTABLE_NAME"))) {
+                        foreignKeys.add(keys.getString("FK_NAME"));
+                    }
+                }
+            }
+        }
+        return foreignKeys;
+    }
+
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? name.toUpperCase() : name;
+    }
+}
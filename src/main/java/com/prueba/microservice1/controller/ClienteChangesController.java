@@ -0,0 +1,61 @@
+package com.prueba.microservice1.controller;
+
+import com.prueba.microservice1.dto.ClienteChangesDTO;
+import com.prueba.microservice1.feed.ClienteChangeFeed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controller REST del change feed de Clientes.
+ * Un consumidor guarda epoch y ultimaSecuencia de cada respuesta y los envía
+ * en la siguiente; con resync=true recarga GET /clientes y continúa.
+ */
+@RestController
+@RequestMapping("/clientes/changes")
+@RequiredArgsConstructor
+@Slf4j
+public class ClienteChangesController {
+
+    private final ClienteChangeFeed changeFeed;
+
+    /**
+     * Cambios posteriores a since; con wait=true espera (long-poll) si no hay cambios.
+     * GET /clientes/changes?since={seq}&epoch={epoch}&limit={n}&wait=true
+     */
+    @GetMapping
+    public DeferredResult<ClienteChangesDTO> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Long epoch,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestParam(defaultValue = "true") boolean wait) {
+        log.debug("GET /clientes/changes - Cambios desde secuencia: {}", since);
+        if (wait) {
+            return changeFeed.poll(since, epoch, limit);
+        }
+        DeferredResult<ClienteChangesDTO> result = new DeferredResult<>();
+        result.setResult(changeFeed.read(since, epoch, limit));
+        return result;
+    }
+
+    /**
+     * Cambios posteriores a since como Server-Sent Events; al reconectar el
+     * navegador envía Last-Event-ID, que tiene prioridad sobre since.
+     * GET /clientes/changes/stream?since={seq}&epoch={epoch}
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Long epoch,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.info("GET /clientes/changes/stream - Suscripción desde secuencia: {}", since);
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since, epoch);
+    }
+}
@@ -1,17 +1,31 @@
 package com.prueba.microservice1.controller;
 
+import com.prueba.microservice1.cache.ClienteJsonCache.SerializedCliente;
+import com.prueba.microservice1.dto.ClienteBatchResultDTO;
 import com.prueba.microservice1.dto.ClienteDTO;
+import com.prueba.microservice1.dto.ClienteField;
+import com.prueba.microservice1.dto.ClienteLookupResultDTO;
+import com.prueba.microservice1.dto.ClientePageDTO;
+import com.prueba.microservice1.dto.ClientePatchDTO;
 import com.prueba.microservice1.dto.ClienteResponseDTO;
-import com.prueba.microservice1.entity.Cliente;
+import com.prueba.microservice1.dto.ClienteSearchHitDTO;
+import com.prueba.microservice1.service.ClienteBatchService;
+import com.prueba.microservice1.service.ClienteLookupService;
 import com.prueba.microservice1.service.ClienteService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Controller REST para gestión de Clientes.
@@ -23,49 +37,121 @@ import java.util.List;
 public class ClienteController {
 
     private final ClienteService clienteService;
+    private final ClienteBatchService clienteBatchService;
+    private final ClienteLookupService clienteLookupService;
 
     /**
-     * Obtiene todos los clientes.
-     * GET /clientes
+     * Obtiene clientes paginados por cursor; fields limita las columnas leídas y escritas.
+     * GET /clientes?after={id}&limit={n}&fields=id,nombre,estado
      */
     @GetMapping
-    public ResponseEntity<List<ClienteResponseDTO>> getAllClientes() {
-        log.info("GET /clientes - Obteniendo todos los clientes");
-        List<ClienteResponseDTO> clientes = clienteService.getAllClientes();
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<ClientePageDTO<?>> getAllClientes(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        log.info("GET /clientes - Obteniendo clientes después de id: {}", after);
+        Set<ClienteField> seleccion = ClienteField.parse(fields);
+        ClientePageDTO<?> page = seleccion == null
+                ? clienteService.getClientesPage(after, limit)
+                : clienteService.getClientesPage(after, limit, seleccion);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Obtiene varios clientes por id en una sola llamada, en el orden solicitado.
+     * GET /clientes?ids=1,2,3
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ClienteLookupResultDTO> getClientesByIds(@RequestParam List<Long> ids) {
+        log.info("GET /clientes?ids - Consultando {} clientes", ids.size());
+        return ResponseEntity.ok(clienteLookupService.lookupClientes(ids));
+    }
+
+    /**
+     * Obtiene varios clientes por id; variante POST para listas largas.
+     * POST /clientes/lookup
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<ClienteLookupResultDTO> lookupClientes(@RequestBody List<Long> ids) {
+        log.info("POST /clientes/lookup - Consultando {} clientes", ids.size());
+        return ResponseEntity.ok(clienteLookupService.lookupClientes(ids));
+    }
+
+    /**
+     * Exporta todos los clientes en formato NDJSON (streaming).
+     * GET /clientes/export
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportClientes(HttpServletResponse response) throws IOException {
+        log.info("GET /clientes/export - Exportando clientes en NDJSON");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        long total = clienteService.exportClientes(response.getOutputStream());
+        log.info("Exportación finalizada: {} clientes", total);
+    }
+
+    /**
+     * Busca clientes por nombre o identificación (autocompletado por prefijo).
+     * GET /clientes/search?q={texto}&limit={n}
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ClienteSearchHitDTO>> searchClientes(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /clientes/search - Buscando clientes: {}", q);
+        List<ClienteSearchHitDTO> resultados = clienteService.searchClientes(q, limit);
+        return ResponseEntity.ok(resultados);
     }
 
     /**
      * Obtiene solo clientes activos.
-     * GET /clientes/activos
+     * GET /clientes/activos?fields=id,nombre
      */
     @GetMapping("/activos")
-    public ResponseEntity<List<ClienteResponseDTO>> getClientesActivos() {
+    public ResponseEntity<List<?>> getClientesActivos(@RequestParam(required = false) String fields) {
         log.info("GET /clientes/activos - Obteniendo clientes activos");
-        List<ClienteResponseDTO> clientes = clienteService.getClientesActivos();
+        Set<ClienteField> seleccion = ClienteField.parse(fields);
+        List<?> clientes = seleccion == null
+                ? clienteService.getClientesActivos()
+                : clienteService.getClientesActivos(seleccion);
         return ResponseEntity.ok(clientes);
     }
 
     /**
-     * Obtiene cliente por ID.
-     * GET /clientes/{id}
+     * Obtiene cliente por ID; con fields solo se escriben esos campos.
+     * El detalle sale del cache, así que fields solo recorta el JSON.
+     * GET /clientes/{id}?fields=id,nombre
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ClienteResponseDTO> getClienteById(@PathVariable Long id) {
+    public ResponseEntity<Object> getClienteById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields) {
         log.info("GET /clientes/{} - Obteniendo cliente por ID", id);
+        Set<ClienteField> seleccion = ClienteField.parse(fields);
         ClienteResponseDTO cliente = clienteService.getClienteById(id);
-        return ResponseEntity.ok(cliente);
+        Object body = seleccion == null ? cliente : ClienteField.select(cliente, seleccion);
+        return ResponseEntity.ok().eTag(versionETag(cliente)).body(body);
     }
 
     /**
      * Endpoint interno para obtener entidad completa (usado por microservice2).
+     * Responde con el JSON pre-serializado y un ETag fuerte; si el header
+     * If-None-Match coincide retorna 304 sin body.
      * GET /clientes/{id}/entity
      */
-    @GetMapping("/{id}/entity")
-    public ResponseEntity<Cliente> getClienteEntityById(@PathVariable Long id) {
+    @GetMapping(value = "/{id}/entity", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getClienteEntityById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("GET /clientes/{}/entity - Obteniendo entidad cliente por ID", id);
-        Cliente cliente = clienteService.getClienteEntityById(id);
-        return ResponseEntity.ok(cliente);
+        SerializedCliente cliente = clienteService.getClienteEntityJson(id);
+        if (cliente.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cliente.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(cliente.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cliente.body());
     }
 
     /**
@@ -79,6 +165,19 @@ public class ClienteController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * Crea clientes en lote.
+     * Responde 201 si todos se crearon o 207 con el detalle por item si alguno falló.
+     * POST /clientes/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ClienteBatchResultDTO> createClientesBatch(@RequestBody List<ClienteDTO> clientes) {
+        log.info("POST /clientes/batch - Creando lote de {} clientes", clientes.size());
+        ClienteBatchResultDTO result = clienteBatchService.createClientes(clientes);
+        HttpStatus status = result.fallidos() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(result);
+    }
+
     /**
      * Actualiza un cliente existente.
      * PUT /clientes/{id}
@@ -92,6 +191,44 @@ public class ClienteController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * Actualiza parcialmente un cliente (solo los campos enviados).
+     * La versión esperada se envía en If-Match (ETag de GET /clientes/{id}) o en el campo version.
+     * PATCH /clientes/{id}
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ClienteResponseDTO> patchCliente(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody ClientePatchDTO patch) {
+        log.info("PATCH /clientes/{} - Actualizando cliente parcialmente", id);
+        ClienteResponseDTO patched = clienteService.patchCliente(id, patch, parseVersion(ifMatch));
+        return ResponseEntity.ok().eTag(versionETag(patched)).body(patched);
+    }
+
+    private static String versionETag(ClienteResponseDTO cliente) {
+        return "\"" + (cliente.version() != null ? cliente.version() : 0L) + "\"";
+    }
+
+    /**
+     * Extrae la versión de un If-Match ("3", W/"3" o 3); "*" equivale a no enviarlo.
+     */
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.strip();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match inválido: " + ifMatch);
+        }
+    }
+
     /**
      * Elimina un cliente.
      * DELETE /clientes/{id}
@@ -0,0 +1,40 @@
+package com.prueba.microservice1.dto;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta para creación masiva de Clientes.
+ * Reporta el resultado de cada item en el mismo orden de la solicitud.
+ */
+public record ClienteBatchResultDTO(
+        int total,
+        int exitosos,
+        int fallidos,
+        List<Item> resultados
+) {
+    /**
+     * Resultado individual de un item del lote.
+     */
+    public record Item(
+            int indice,
+            boolean exitoso,
+            ClienteResponseDTO cliente,
+            String error
+    ) {
+        public static Item ok(int indice, ClienteResponseDTO cliente) {
+            return new Item(indice, true, cliente, null);
+        }
+
+        public static Item error(int indice, String error) {
+            return new Item(indice, false, null, error);
+        }
+    }
+
+    /**
+     * Construye el resumen a partir de los resultados individuales.
+     */
+    public static ClienteBatchResultDTO of(List<Item> resultados) {
+        int exitosos = (int) resultados.stream().filter(Item::exitoso).count();
+        return new ClienteBatchResultDTO(resultados.size(), exitosos, resultados.size() - exitosos, resultados);
+    }
+}
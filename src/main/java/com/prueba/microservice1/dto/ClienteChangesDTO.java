@@ -0,0 +1,26 @@
+package com.prueba.microservice1.dto;
+
+import com.prueba.microservice1.kafka.ClienteEvent;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta del change feed de Clientes.
+ * Con resync=true los cambios pedidos ya no están en memoria: el consumidor debe
+ * recargar el estado completo (GET /clientes) y continuar desde ultimaSecuencia.
+ */
+public record ClienteChangesDTO(
+        long epoch,
+        long ultimaSecuencia,
+        boolean resync,
+        List<Change> cambios
+) {
+    /**
+     * Cambio individual con su número de secuencia.
+     */
+    public record Change(
+            long secuencia,
+            ClienteEvent evento
+    ) {
+    }
+}
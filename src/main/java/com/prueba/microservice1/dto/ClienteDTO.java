@@ -1,5 +1,6 @@
 package com.prueba.microservice1.dto;
 
+import com.prueba.microservice1.entity.EstadoConverter;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -36,7 +37,7 @@ public record ClienteDTO(
      */
     public ClienteDTO {
         nombre = nombre != null ? nombre.strip() : null;
-        estado = estado != null ? estado : "True";
+        estado = estado != null ? EstadoConverter.normalizar(estado) : "True";
     }
 
     /**
@@ -0,0 +1,80 @@
+package com.prueba.microservice1.dto;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Campos de ClienteResponseDTO seleccionables con ?fields= (sparse fieldsets).
+ * El nombre coincide con la propiedad JSON y con el atributo de la entidad.
+ */
+public enum ClienteField {
+    ID("id", ClienteResponseDTO::id),
+    NOMBRE("nombre", ClienteResponseDTO::nombre),
+    GENERO("genero", ClienteResponseDTO::genero),
+    EDAD("edad", ClienteResponseDTO::edad),
+    IDENTIFICACION("identificacion", ClienteResponseDTO::identificacion),
+    DIRECCION("direccion", ClienteResponseDTO::direccion),
+    TELEFONO("telefono", ClienteResponseDTO::telefono),
+    ESTADO("estado", ClienteResponseDTO::estado),
+    VERSION("version", ClienteResponseDTO::version);
+
+    private static final Map<String, ClienteField> BY_NOMBRE = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(ClienteField::nombre, Function.identity()));
+    private static final String NOMBRES = Arrays.stream(values())
+            .map(ClienteField::nombre)
+            .collect(Collectors.joining(", "));
+
+    private final String nombre;
+    private final Function<ClienteResponseDTO, Object> getter;
+
+    ClienteField(String nombre, Function<ClienteResponseDTO, Object> getter) {
+        this.nombre = nombre;
+        this.getter = getter;
+    }
+
+    public String nombre() {
+        return nombre;
+    }
+
+    /**
+     * Interpreta el parámetro fields ("id,nombre,estado").
+     * El id siempre se incluye: identifica el recurso y es el cursor de paginación.
+     *
+     * @return null si no se pidió un subconjunto (todos los campos)
+     */
+    public static Set<ClienteField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        EnumSet<ClienteField> seleccion = EnumSet.of(ID);
+        for (String campo : fields.split(",")) {
+            String nombre = campo.strip();
+            if (nombre.isEmpty()) {
+                continue;
+            }
+            ClienteField field = BY_NOMBRE.get(nombre);
+            if (field == null) {
+                throw new IllegalArgumentException("Campo desconocido: " + nombre
+                        + ". Campos válidos: " + NOMBRES);
+            }
+            seleccion.add(field);
+        }
+        return seleccion;
+    }
+
+    /**
+     * Extrae los campos seleccionados de un DTO completo (p. ej. desde el cache).
+     */
+    public static Map<String, Object> select(ClienteResponseDTO cliente, Set<ClienteField> fields) {
+        Map<String, Object> seleccion = new LinkedHashMap<>();
+        for (ClienteField field : fields) {
+            seleccion.put(field.nombre, field.getter.apply(cliente));
+        }
+        return seleccion;
+    }
+}
@@ -0,0 +1,39 @@
+package com.prueba.microservice1.dto;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta para la consulta de varios clientes por id.
+ * Reporta cada id en el mismo orden de la solicitud, marcando los inexistentes.
+ */
+public record ClienteLookupResultDTO(
+        int total,
+        int encontrados,
+        int faltantes,
+        List<Item> resultados
+) {
+    /**
+     * Resultado individual de un id solicitado.
+     */
+    public record Item(
+            Long id,
+            boolean encontrado,
+            ClienteResponseDTO cliente
+    ) {
+        public static Item found(ClienteResponseDTO cliente) {
+            return new Item(cliente.id(), true, cliente);
+        }
+
+        public static Item missing(Long id) {
+            return new Item(id, false, null);
+        }
+    }
+
+    /**
+     * Construye el resumen a partir de los resultados individuales.
+     */
+    public static ClienteLookupResultDTO of(List<Item> resultados) {
+        int encontrados = (int) resultados.stream().filter(Item::encontrado).count();
+        return new ClienteLookupResultDTO(resultados.size(), encontrados, resultados.size() - encontrados, resultados);
+    }
+}
@@ -0,0 +1,16 @@
+package com.prueba.microservice1.dto;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta paginada por cursor (keyset) para Clientes.
+ * siguienteCursor es null cuando no hay más resultados.
+ *
+ * @param <T> ClienteResponseDTO o un mapa con los campos pedidos en ?fields=
+ */
+public record ClientePageDTO<T>(
+        List<T> clientes,
+        int limit,
+        Long siguienteCursor
+) {
+}
@@ -0,0 +1,67 @@
+package com.prueba.microservice1.dto;
+
+import com.prueba.microservice1.entity.EstadoConverter;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DTO de actualización parcial de Cliente: solo se aplican los campos no nulos.
+ * La versión esperada viaja en el header If-Match o en el campo version.
+ */
+public record ClientePatchDTO(
+        @Size(min = 2, max = 100)
+        String nombre,
+
+        @Size(max = 10)
+        String genero,
+
+        @Min(value = 0, message = "La edad debe ser positiva")
+        Integer edad,
+
+        @Size(max = 200)
+        String direccion,
+
+        @Size(max = 20)
+        String telefono,
+
+        @Size(min = 1)
+        String contrasena,
+
+        String estado,
+
+        Long version
+) {
+    /**
+     * Constructor compacto para normalizar los campos presentes.
+     */
+    public ClientePatchDTO {
+        nombre = nombre != null ? nombre.strip() : null;
+        estado = estado != null ? EstadoConverter.normalizar(estado) : null;
+    }
+
+    /**
+     * Indica si el patch no modifica ningún campo.
+     */
+    public boolean isEmpty() {
+        return nombre == null && genero == null && edad == null && direccion == null
+                && telefono == null && contrasena == null && estado == null;
+    }
+
+    /**
+     * Campos modificados y su nuevo valor, para el evento delta.
+     * La contraseña nunca se publica.
+     */
+    public Map<String, String> cambios() {
+        Map<String, String> cambios = new LinkedHashMap<>();
+        if (nombre != null) cambios.put("nombre", nombre);
+        if (genero != null) cambios.put("genero", genero);
+        if (edad != null) cambios.put("edad", String.valueOf(edad));
+        if (direccion != null) cambios.put("direccion", direccion);
+        if (telefono != null) cambios.put("telefono", telefono);
+        if (estado != null) cambios.put("estado", estado);
+        return cambios;
+    }
+}
@@ -13,7 +13,8 @@ public record ClienteResponseDTO(
         String identificacion,
         String direccion,
         String telefono,
-        String estado
+        String estado,
+        Long version
 ) {
     /**
      * Convierte entidad a DTO.
@@ -27,7 +28,25 @@ public record ClienteResponseDTO(
                 cliente.getIdentificacion(),
                 cliente.getDireccion(),
                 cliente.getTelefono(),
-                cliente.getEstado()
+                cliente.getEstado(),
+                cliente.getVersion()
+        );
+    }
+
+    /**
+     * Aplica los campos presentes del patch y avanza la versión.
+     */
+    public ClienteResponseDTO withPatch(ClientePatchDTO patch) {
+        return new ClienteResponseDTO(
+                id,
+                patch.nombre() != null ? patch.nombre() : nombre,
+                patch.genero() != null ? patch.genero() : genero,
+                patch.edad() != null ? patch.edad() : edad,
+                identificacion,
+                patch.direccion() != null ? patch.direccion() : direccion,
+                patch.telefono() != null ? patch.telefono() : telefono,
+                patch.estado() != null ? patch.estado() : estado,
+                (version != null ? version : 0L) + 1
         );
     }
 }
@@ -0,0 +1,10 @@
+package com.prueba.microservice1.dto;
+
+/**
+ * Resultado de búsqueda de clientes con su puntaje de relevancia.
+ */
+public record ClienteSearchHitDTO(
+        ClienteResponseDTO cliente,
+        double score
+) {
+}
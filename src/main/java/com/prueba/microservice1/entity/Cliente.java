@@ -1,6 +1,9 @@
 package com.prueba.microservice1.entity;
 
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -12,6 +15,7 @@ import lombok.experimental.SuperBuilder;
  * Entidad Cliente que extiende de Persona.
  */
 @Entity
+@Table(indexes = @Index(name = "idx_cliente_estado", columnList = "estado"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,9 +23,13 @@ import lombok.experimental.SuperBuilder;
 @SuperBuilder
 public class Cliente extends Persona {
 
+    public static final String ESTADO_ACTIVO = "True";
+    public static final String ESTADO_INACTIVO = "False";
+
     @NotBlank(message = "La contraseña es obligatoria")
     private String contrasena;
 
+    @Convert(converter = EstadoConverter.class)
     private String estado;
 
     /**
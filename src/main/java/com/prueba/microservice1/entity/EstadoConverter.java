@@ -0,0 +1,33 @@
+package com.prueba.microservice1.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Normaliza el estado del cliente a los valores canónicos "True" / "False".
+ * Permite filtrar por igualdad exacta y aprovechar el índice de la columna.
+ */
+@Converter
+public class EstadoConverter implements AttributeConverter<String, String> {
+
+    /**
+     * Convierte cualquier variante de "true" (sin importar mayúsculas) a "True",
+     * el resto de valores a "False". Null se conserva.
+     */
+    public static String normalizar(String estado) {
+        if (estado == null) {
+            return null;
+        }
+        return "true".equalsIgnoreCase(estado.strip()) ? Cliente.ESTADO_ACTIVO : Cliente.ESTADO_INACTIVO;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String estado) {
+        return normalizar(estado);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String estado) {
+        return normalizar(estado);
+    }
+}
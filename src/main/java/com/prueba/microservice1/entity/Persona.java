@@ -22,8 +22,12 @@ import lombok.experimental.SuperBuilder;
 @SuperBuilder
 public class Persona {
 
+    /**
+     * Secuencia pooled: IDENTITY deshabilita el batching de INSERT en Hibernate.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "persona_seq")
+    @SequenceGenerator(name = "persona_seq", sequenceName = "persona_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre es obligatorio")
@@ -45,4 +49,10 @@ public class Persona {
 
     @Size(max = 20, message = "El teléfono no puede exceder 20 caracteres")
     private String telefono;
+
+    /**
+     * Versión para control de concurrencia optimista.
+     */
+    @Version
+    private Long version;
 }
@@ -0,0 +1,11 @@
+package com.prueba.microservice1.exception;
+
+/**
+ * Ya existe un cliente con la identificación dada.
+ */
+public class ClienteDuplicadoException extends RuntimeException {
+
+    public ClienteDuplicadoException(String identificacion) {
+        super("Ya existe un cliente con identificación: " + identificacion);
+    }
+}
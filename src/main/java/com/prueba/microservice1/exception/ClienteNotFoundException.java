@@ -1,8 +1,25 @@
 package com.prueba.microservice1.exception;
 
+/**
+ * Cliente inexistente. Sin stack trace: es un resultado esperado (ids inexistentes
+ * de scanners y reintentos), no un error, y capturar la pila domina su costo.
+ * El mensaje se arma solo si alguien lo pide.
+ */
 public class ClienteNotFoundException extends RuntimeException {
 
-    public ClienteNotFoundException(String mensaje) {
-        super(mensaje);
+    private final Long id;
+
+    public ClienteNotFoundException(Long id) {
+        super(null, null, false, false);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Cliente no encontrado con id: " + id;
     }
 }
@@ -0,0 +1,18 @@
+package com.prueba.microservice1.exception;
+
+import lombok.Getter;
+
+/**
+ * La versión esperada del cliente no coincide con la almacenada.
+ * precondicion indica que la versión vino en If-Match (412) y no en el body (409).
+ */
+@Getter
+public class ClienteVersionConflictException extends RuntimeException {
+
+    private final boolean precondicion;
+
+    public ClienteVersionConflictException(Long id, Long versionEsperada, boolean precondicion) {
+        super("El cliente " + id + " fue modificado; versión esperada: " + versionEsperada);
+        this.precondicion = precondicion;
+    }
+}
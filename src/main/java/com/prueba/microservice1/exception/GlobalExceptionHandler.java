@@ -1,8 +1,12 @@
 package com.prueba.microservice1.exception;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -20,6 +24,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private static final String CLIENTE_NO_ENCONTRADO = "Cliente no encontrado";
+
     /**
      * Estructura de respuesta de error.
      */
@@ -40,14 +46,82 @@ public class GlobalExceptionHandler {
 
     /**
      * Maneja ClienteNotFoundException.
+     * Es un resultado esperado y frecuente: log en DEBUG y respuesta sin armar strings.
      */
     @ExceptionHandler(ClienteNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleClienteNotFound(ClienteNotFoundException ex) {
-        log.warn("Cliente no encontrado: {}", ex.getMessage());
-        ErrorResponse error = ErrorResponse.of(HttpStatus.NOT_FOUND, ex.getMessage());
+        log.debug("Cliente no encontrado con id: {}", ex.getId());
+        ErrorResponse error = ErrorResponse.of(HttpStatus.NOT_FOUND, CLIENTE_NO_ENCONTRADO,
+                ex.getId() != null ? ex.getId().toString() : null);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    /**
+     * Maneja identificaciones duplicadas detectadas antes del insert.
+     */
+    @ExceptionHandler(ClienteDuplicadoException.class)
+    public ResponseEntity<ErrorResponse> handleClienteDuplicado(ClienteDuplicadoException ex) {
+        log.warn("Cliente duplicado: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.of(HttpStatus.CONFLICT, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Maneja violaciones de restricciones de la base de datos (p. ej. un insert
+     * concurrente con la misma identificación que pasó el chequeo previo).
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        log.warn("Violación de integridad: {}", ex.getMostSpecificCause().getMessage());
+        ErrorResponse error = ErrorResponse.of(HttpStatus.CONFLICT,
+                "El cliente viola una restricción de unicidad o integridad");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Maneja conflictos de versión: 412 si la versión vino en If-Match, 409 si vino en el body.
+     */
+    @ExceptionHandler(ClienteVersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleVersionConflict(ClienteVersionConflictException ex) {
+        log.warn("Conflicto de versión: {}", ex.getMessage());
+        HttpStatus status = ex.isPrecondicion() ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        ErrorResponse error = ErrorResponse.of(status, ex.getMessage());
+        return ResponseEntity.status(status).body(error);
+    }
+
+    /**
+     * Maneja escrituras concurrentes detectadas por el @Version de la entidad.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLocking(ObjectOptimisticLockingFailureException ex) {
+        log.warn("Modificación concurrente: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.of(HttpStatus.CONFLICT,
+                "El cliente fue modificado por otra operación, vuelva a intentarlo");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Maneja el rechazo de un circuit breaker abierto (base o Kafka lentos o caídos).
+     */
+    @ExceptionHandler(CallNotPermittedException.class)
+    public ResponseEntity<ErrorResponse> handleCallNotPermitted(CallNotPermittedException ex) {
+        log.warn("Circuito abierto: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.of(HttpStatus.SERVICE_UNAVAILABLE,
+                "Servicio temporalmente no disponible", ex.getCausingCircuitBreakerName());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
+    /**
+     * Maneja el rechazo de un bulkhead sin permisos libres.
+     */
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadFull(BulkheadFullException ex) {
+        log.warn("Bulkhead lleno: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.of(HttpStatus.SERVICE_UNAVAILABLE,
+                "Servicio saturado, vuelva a intentarlo", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     /**
      * Maneja errores de validación.
      */
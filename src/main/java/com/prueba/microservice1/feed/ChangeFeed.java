@@ -0,0 +1,67 @@
+package com.prueba.microservice1.feed;
+
+import com.prueba.microservice1.dto.ClienteChangesDTO;
+import com.prueba.microservice1.dto.ClienteChangesDTO.Change;
+import com.prueba.microservice1.kafka.ClienteEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ring buffer acotado de los últimos ClienteEvent con secuencia creciente.
+ * Las secuencias empiezan en 1 y se reinician con el proceso; epoch identifica
+ * la instancia para que un consumidor detecte el reinicio.
+ */
+public class ChangeFeed {
+
+    private final Change[] buffer;
+    private final long epoch;
+    private long ultimaSecuencia;
+
+    public ChangeFeed(int capacity, long epoch) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor a 0");
+        }
+        this.buffer = new Change[capacity];
+        this.epoch = epoch;
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    public synchronized long ultimaSecuencia() {
+        return ultimaSecuencia;
+    }
+
+    /**
+     * Agrega los eventos en orden y retorna la última secuencia asignada.
+     */
+    public synchronized long append(List<ClienteEvent> events) {
+        for (ClienteEvent event : events) {
+            long secuencia = ++ultimaSecuencia;
+            buffer[(int) (secuencia % buffer.length)] = new Change(secuencia, event);
+        }
+        return ultimaSecuencia;
+    }
+
+    /**
+     * Cambios posteriores a since, como máximo limit.
+     * Pide resync si since ya salió del buffer, es de otra instancia (epoch)
+     * o es mayor a la última secuencia emitida.
+     */
+    public synchronized ClienteChangesDTO read(long since, Long sinceEpoch, int limit) {
+        long oldest = Math.max(1, ultimaSecuencia - buffer.length + 1);
+        boolean otraInstancia = sinceEpoch != null && sinceEpoch != epoch;
+        if (otraInstancia || since > ultimaSecuencia || since < oldest - 1) {
+            return new ClienteChangesDTO(epoch, ultimaSecuencia, true, List.of());
+        }
+        int count = (int) Math.min(limit, ultimaSecuencia - since);
+        List<Change> cambios = new ArrayList<>(count);
+        for (long secuencia = since + 1; secuencia <= since + count; secuencia++) {
+            cambios.add(buffer[(int) (secuencia % buffer.length)]);
+        }
+        long hasta = cambios.isEmpty() ? ultimaSecuencia : cambios.get(cambios.size() - 1).secuencia();
+        return new ClienteChangesDTO(epoch, hasta, false, cambios);
+    }
+}
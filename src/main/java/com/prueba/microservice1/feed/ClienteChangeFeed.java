@@ -0,0 +1,179 @@
+package com.prueba.microservice1.feed;
+
+import com.prueba.microservice1.dto.ClienteChangesDTO;
+import com.prueba.microservice1.dto.ClienteChangesDTO.Change;
+import com.prueba.microservice1.kafka.ClienteEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Change feed de Clientes: lo alimenta ClienteEventProducer después de cada commit
+ * y lo sirven long-poll (DeferredResult) y SSE. Un consumidor al día solo recibe
+ * los cambios nuevos, sin releer la tabla.
+ */
+@Component
+@Slf4j
+public class ClienteChangeFeed {
+
+    private final ChangeFeed feed;
+    private final long longPollTimeoutMillis;
+    private final int maxLimit;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final Queue<Subscriber> subscribers = new ConcurrentLinkedQueue<>();
+    private final ExecutorService sseExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cliente-changes-sse");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Request de long-poll esperando cambios posteriores a since.
+     */
+    private record Waiter(long since, Long epoch, int limit, DeferredResult<ClienteChangesDTO> result) {
+    }
+
+    public ClienteChangeFeed(MeterRegistry meterRegistry,
+                             @Value("${clientes.changes.capacity:10000}") int capacity,
+                             @Value("${clientes.changes.long-poll-timeout:30s}") Duration longPollTimeout,
+                             @Value("${clientes.changes.max-limit:1000}") int maxLimit) {
+        this.feed = new ChangeFeed(capacity, System.currentTimeMillis());
+        this.longPollTimeoutMillis = longPollTimeout.toMillis();
+        this.maxLimit = maxLimit;
+        Gauge.builder("clientes.changes.sequence", feed, ChangeFeed::ultimaSecuencia)
+                .description("Última secuencia del change feed")
+                .register(meterRegistry);
+        Gauge.builder("clientes.changes.subscribers", subscribers, Queue::size)
+                .description("Suscriptores SSE del change feed")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sseExecutor.shutdownNow();
+    }
+
+    /**
+     * Registra eventos ya confirmados y despierta a los consumidores en espera.
+     */
+    public void append(List<ClienteEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        feed.append(events);
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.result().setResult(feed.read(waiter.since(), waiter.epoch(), waiter.limit()));
+        }
+        if (!subscribers.isEmpty()) {
+            sseExecutor.execute(() -> subscribers.forEach(Subscriber::push));
+        }
+    }
+
+    /**
+     * Lectura inmediata de los cambios posteriores a since.
+     */
+    public ClienteChangesDTO read(long since, Long epoch, int limit) {
+        return feed.read(since, epoch, resolveLimit(limit));
+    }
+
+    /**
+     * Long-poll: responde de inmediato si hay cambios (o hace falta resync);
+     * si no, espera el próximo cambio hasta el timeout y responde vacío.
+     */
+    public DeferredResult<ClienteChangesDTO> poll(long since, Long epoch, int limit) {
+        int pageLimit = resolveLimit(limit);
+        ClienteChangesDTO current = feed.read(since, epoch, pageLimit);
+        DeferredResult<ClienteChangesDTO> result = new DeferredResult<>(longPollTimeoutMillis, current);
+        if (current.resync() || !current.cambios().isEmpty()) {
+            result.setResult(current);
+            return result;
+        }
+
+        Waiter waiter = new Waiter(since, epoch, pageLimit, result);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        // Un cambio pudo llegar entre la lectura y el registro
+        if (feed.ultimaSecuencia() > since && waiters.remove(waiter)) {
+            result.setResult(feed.read(since, epoch, pageLimit));
+        }
+        return result;
+    }
+
+    /**
+     * Suscripción SSE: envía los cambios posteriores a since y luego cada cambio nuevo.
+     * Eventos "cambio" (id = secuencia) y "resync" si since ya no está disponible.
+     */
+    public SseEmitter subscribe(long since, Long epoch) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, since, epoch);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        sseExecutor.execute(subscriber::push);
+        return emitter;
+    }
+
+    private int resolveLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("El parámetro limit debe ser mayor a 0");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    /**
+     * Suscriptor SSE; push() solo corre en el hilo del executor, así los
+     * cambios salen en orden y sin duplicados.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long epoch;
+        private long lastSent;
+
+        private Subscriber(SseEmitter emitter, long since, Long epoch) {
+            this.emitter = emitter;
+            this.lastSent = since;
+            this.epoch = epoch;
+        }
+
+        void push() {
+            try {
+                ClienteChangesDTO page;
+                do {
+                    page = feed.read(lastSent, epoch, maxLimit);
+                    if (page.resync()) {
+                        emitter.send(SseEmitter.event().name("resync").data(page));
+                        emitter.complete();
+                        subscribers.remove(this);
+                        return;
+                    }
+                    for (Change change : page.cambios()) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(change.secuencia()))
+                                .name("cambio")
+                                .data(change));
+                        lastSent = change.secuencia();
+                    }
+                } while (!page.cambios().isEmpty() && lastSent < feed.ultimaSecuencia());
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Suscriptor SSE del change feed desconectado: {}", e.getMessage());
+                subscribers.remove(this);
+            }
+        }
+    }
+}
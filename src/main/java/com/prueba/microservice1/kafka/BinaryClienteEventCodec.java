@@ -0,0 +1,252 @@
+package com.prueba.microservice1.kafka;
+
+import com.prueba.microservice1.kafka.ClienteEvent.EventType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Formato binario compacto de ClienteEvent.
+ *
+ * <pre>
+ * byte    MAGIC (0xC1, nunca es el primer byte de un JSON válido)
+ * byte    versión del esquema
+ * byte    ordinal de EventType
+ * byte    flags de campos presentes
+ * varint  clienteId (zigzag)
+ * varint  timestamp en epoch millis (zigzag, LocalDateTime en la zona del servidor)
+ * string  nombreCliente, identificacion, estado (varint longitud + UTF-8)
+ * [v2] varint cantidad de cambios + pares string clave / string valor
+ * </pre>
+ * El estado canónico "True"/"False" se codifica solo con flags.
+ * Los eventos sin cambios se escriben en versión 1, así los consumidores
+ * que solo conocen v1 siguen leyendo CREATED/UPDATED/DELETED.
+ */
+public class BinaryClienteEventCodec implements ClienteEventCodec {
+
+    public static final byte MAGIC = (byte) 0xC1;
+    public static final byte VERSION = 2;
+    public static final byte VERSION_SIN_CAMBIOS = 1;
+
+    private static final int HEADER_SIZE = 4;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_TIMESTAMP = 1 << 1;
+    private static final int HAS_NOMBRE = 1 << 2;
+    private static final int HAS_IDENTIFICACION = 1 << 3;
+    private static final int ESTADO_TRUE = 1 << 4;
+    private static final int ESTADO_FALSE = 1 << 5;
+    private static final int HAS_ESTADO_TEXT = 1 << 6;
+    private static final int HAS_CAMBIOS = 1 << 7;
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    /**
+     * Indica si el payload usa este formato.
+     */
+    public static boolean isBinary(byte[] payload) {
+        return payload != null && payload.length > 0 && payload[0] == MAGIC;
+    }
+
+    @Override
+    public byte[] encode(ClienteEvent event) {
+        byte[] nombre = utf8(event.nombreCliente());
+        byte[] identificacion = utf8(event.identificacion());
+        byte[] estadoText = null;
+
+        int flags = 0;
+        if (event.clienteId() != null) flags |= HAS_ID;
+        if (event.timestamp() != null) flags |= HAS_TIMESTAMP;
+        if (nombre != null) flags |= HAS_NOMBRE;
+        if (identificacion != null) flags |= HAS_IDENTIFICACION;
+        if ("True".equals(event.estado())) {
+            flags |= ESTADO_TRUE;
+        } else if ("False".equals(event.estado())) {
+            flags |= ESTADO_FALSE;
+        } else if (event.estado() != null) {
+            flags |= HAS_ESTADO_TEXT;
+            estadoText = utf8(event.estado());
+        }
+        Map<String, String> cambios = event.cambios();
+        if (cambios != null) flags |= HAS_CAMBIOS;
+
+        Buffer out = new Buffer(HEADER_SIZE + 20 + length(nombre) + length(identificacion) + length(estadoText));
+        out.put(MAGIC);
+        out.put(cambios != null ? VERSION : VERSION_SIN_CAMBIOS);
+        out.put((byte) EventType.valueOf(event.eventType()).ordinal());
+        out.put((byte) flags);
+        if (event.clienteId() != null) {
+            out.putVarLong(zigzag(event.clienteId()));
+        }
+        if (event.timestamp() != null) {
+            out.putVarLong(zigzag(event.timestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        }
+        out.putBytes(nombre);
+        out.putBytes(identificacion);
+        out.putBytes(estadoText);
+        if (cambios != null) {
+            out.putVarLong(cambios.size());
+            cambios.forEach((campo, valor) -> {
+                out.putBytes(utf8(campo));
+                out.putBytes(utf8(valor));
+            });
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public ClienteEvent decode(byte[] payload) {
+        if (payload == null || payload.length < HEADER_SIZE || payload[0] != MAGIC) {
+            throw new IllegalArgumentException("Payload no corresponde al formato binario de ClienteEvent");
+        }
+        int version = payload[1];
+        if (version != VERSION && version != VERSION_SIN_CAMBIOS) {
+            throw new IllegalArgumentException("Versión de esquema no soportada: " + version);
+        }
+        int ordinal = payload[2];
+        if (ordinal < 0 || ordinal >= EVENT_TYPES.length) {
+            throw new IllegalArgumentException("Tipo de evento desconocido: " + ordinal);
+        }
+        int flags = payload[3] & 0xFF;
+
+        Reader in = new Reader(payload, HEADER_SIZE);
+        Long clienteId = (flags & HAS_ID) != 0 ? unzigzag(in.varLong()) : null;
+        LocalDateTime timestamp = null;
+        if ((flags & HAS_TIMESTAMP) != 0) {
+            timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(unzigzag(in.varLong())), ZoneId.systemDefault());
+        }
+        String nombre = (flags & HAS_NOMBRE) != 0 ? in.string() : null;
+        String identificacion = (flags & HAS_IDENTIFICACION) != 0 ? in.string() : null;
+        String estado = null;
+        if ((flags & ESTADO_TRUE) != 0) {
+            estado = "True";
+        } else if ((flags & ESTADO_FALSE) != 0) {
+            estado = "False";
+        } else if ((flags & HAS_ESTADO_TEXT) != 0) {
+            estado = in.string();
+        }
+        Map<String, String> cambios = null;
+        if ((flags & HAS_CAMBIOS) != 0) {
+            long size = in.varLong();
+            if (size < 0 || size > payload.length) {
+                throw new IllegalArgumentException("Cantidad de cambios inválida: " + size);
+            }
+            cambios = new LinkedHashMap<>();
+            for (long i = 0; i < size; i++) {
+                cambios.put(in.string(), in.string());
+            }
+        }
+
+        return new ClienteEvent(EVENT_TYPES[ordinal].name(), clienteId, nombre, identificacion, estado, timestamp,
+                cambios);
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? value.length + 5 : 0;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Buffer de escritura con crecimiento automático.
+     */
+    private static final class Buffer {
+        private byte[] data;
+        private int position;
+
+        Buffer(int initialCapacity) {
+            this.data = new byte[initialCapacity];
+        }
+
+        void put(byte value) {
+            ensureCapacity(1);
+            data[position++] = value;
+        }
+
+        void putVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                data[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[position++] = (byte) value;
+        }
+
+        void putBytes(byte[] value) {
+            if (value == null) {
+                return;
+            }
+            putVarLong(value.length);
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, data, position, value.length);
+            position += value.length;
+        }
+
+        byte[] toByteArray() {
+            return position == data.length ? data : Arrays.copyOf(data, position);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, position + extra));
+            }
+        }
+    }
+
+    /**
+     * Lector secuencial del payload.
+     */
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        long varLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = next();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Varint mal formado");
+        }
+
+        String string() {
+            long length = varLong();
+            if (length < 0 || length > data.length - position) {
+                throw new IllegalArgumentException("Longitud de string inválida: " + length);
+            }
+            String value = new String(data, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+
+        private byte next() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Payload truncado");
+            }
+            return data[position++];
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.prueba.microservice1.kafka;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
+import java.util.Map;
 
 /**
  * Evento de Cliente para Kafka.
+ * Los eventos PATCHED llevan solo los campos modificados en cambios.
  */
 public record ClienteEvent(
         String eventType,
@@ -11,13 +15,23 @@ public record ClienteEvent(
         String nombreCliente,
         String identificacion,
         String estado,
-        LocalDateTime timestamp
+        LocalDateTime timestamp,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Map<String, String> cambios
 ) {
     /**
      * Tipos de eventos soportados.
      */
     public enum EventType {
-        CREATED, UPDATED, DELETED
+        CREATED, UPDATED, DELETED, PATCHED
+    }
+
+    /**
+     * Evento de estado completo (sin cambios).
+     */
+    public ClienteEvent(String eventType, Long clienteId, String nombreCliente,
+                        String identificacion, String estado, LocalDateTime timestamp) {
+        this(eventType, clienteId, nombreCliente, identificacion, estado, timestamp, null);
     }
 
     /**
@@ -61,4 +75,19 @@ public record ClienteEvent(
                 LocalDateTime.now()
         );
     }
+
+    /**
+     * Factory method para evento de actualización parcial (solo campos modificados).
+     */
+    public static ClienteEvent patched(Long id, Map<String, String> cambios) {
+        return new ClienteEvent(
+                EventType.PATCHED.name(),
+                id,
+                null,
+                null,
+                null,
+                LocalDateTime.now(),
+                Map.copyOf(cambios)
+        );
+    }
 }
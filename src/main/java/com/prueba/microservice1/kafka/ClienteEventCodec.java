@@ -0,0 +1,18 @@
+package com.prueba.microservice1.kafka;
+
+/**
+ * Formato de serialización de ClienteEvent en el topic.
+ * La implementación se elige con kafka.event-format en KafkaConfig.
+ */
+public interface ClienteEventCodec {
+
+    /**
+     * Serializa el evento al payload del mensaje.
+     */
+    byte[] encode(ClienteEvent event);
+
+    /**
+     * Reconstruye el evento desde el payload del mensaje.
+     */
+    ClienteEvent decode(byte[] payload);
+}
@@ -0,0 +1,27 @@
+package com.prueba.microservice1.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Deserializer de ClienteEvent para consumidores.
+ * Detecta el formato por el primer byte, así un consumidor soporta
+ * JSON y binario durante la migración entre formatos.
+ */
+public class ClienteEventDeserializer implements Deserializer<ClienteEvent> {
+
+    private final BinaryClienteEventCodec binaryCodec = new BinaryClienteEventCodec();
+    private final JsonClienteEventCodec jsonCodec = new JsonClienteEventCodec();
+
+    @Override
+    public ClienteEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return BinaryClienteEventCodec.isBinary(data) ? binaryCodec.decode(data) : jsonCodec.decode(data);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Error deserializando ClienteEvent del topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.prueba.microservice1.kafka;
+
+import com.prueba.microservice1.kafka.ClienteEvent.EventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Métricas del envío de eventos a Kafka.
+ * Todos los tags son de baja cardinalidad (tipo de evento, resultado, clase de excepción).
+ */
+class ClienteEventMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<EventType, Counter> enqueued = new EnumMap<>(EventType.class);
+    private final Timer sendTimer;
+    private final Timer ackTimer;
+    private final Timer failureTimer;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    ClienteEventMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (EventType type : EventType.values()) {
+            enqueued.put(type, Counter.builder("cliente.events.enqueued")
+                    .description("Eventos encolados para envío")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        this.sendTimer = Timer.builder("cliente.events.send")
+                .description("Duración de la llamada a KafkaTemplate.send (incluye bloqueo por metadata)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.ackTimer = latencyTimer("success");
+        this.failureTimer = latencyTimer("failure");
+        Gauge.builder("cliente.events.inflight", inFlight, AtomicInteger::get)
+                .description("Eventos enviados pendientes de ack")
+                .register(meterRegistry);
+    }
+
+    private Timer latencyTimer(String outcome) {
+        return Timer.builder("cliente.events.latency")
+                .description("Tiempo desde que el evento se encola hasta el ack de Kafka")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    void enqueued(String eventType) {
+        Counter counter = enqueued.get(EventType.valueOf(eventType));
+        counter.increment();
+    }
+
+    /**
+     * Registra la duración de la llamada send y marca el evento como en vuelo.
+     */
+    void sent(long sendStartedAt) {
+        sendTimer.record(System.nanoTime() - sendStartedAt, TimeUnit.NANOSECONDS);
+        inFlight.incrementAndGet();
+    }
+
+    void acked(long enqueuedAt) {
+        inFlight.decrementAndGet();
+        ackTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+    }
+
+    void failed(long enqueuedAt, Throwable ex, boolean wasInFlight) {
+        if (wasInFlight) {
+            inFlight.decrementAndGet();
+        }
+        failureTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        Counter.builder("cliente.events.failures")
+                .description("Envíos fallidos por tipo de excepción")
+                .tag("exception", unwrap(ex).getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        Throwable cause = ex;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -1,50 +1,114 @@
 package com.prueba.microservice1.kafka;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.prueba.microservice1.entity.Cliente;
+import com.prueba.microservice1.entity.OutboxEvent;
+import com.prueba.microservice1.feed.ClienteChangeFeed;
+import com.prueba.microservice1.kafka.StripedEventExecutor.OverflowPolicy;
+import com.prueba.microservice1.repository.OutboxEventRepository;
+import com.prueba.microservice1.timing.RequestTiming;
+import com.prueba.microservice1.timing.RequestTiming.Phase;
+import com.prueba.microservice1.util.TransactionCallbacks;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.BiConsumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Producer de eventos de Cliente para Kafka.
+ * Con kafka.outbox.enabled=true los eventos se escriben en el outbox dentro de la
+ * transacción del cambio y los publica OutboxRelay; si no, se envían directamente
+ * después del commit a través de un executor particionado por clienteId,
+ * opcionalmente tras una ventana de coalescencia por clienteId (kafka.coalesce.window).
+ * Si Kafka no está disponible (circuit breaker abierto, bulkhead lleno o envío fallido) el evento
+ * va al journal local y lo reenvía SpillJournalReplayer; mientras el journal tenga
+ * pendientes los eventos nuevos se encolan detrás para no adelantarse. Mientras un
+ * clienteId tiene un envío en curso sus eventos siguientes quedan retenidos sin bloquear
+ * el carril; al conocerse el resultado van al journal detrás del envío, si falló.
  */
 @Component
 @Slf4j
 public class ClienteEventProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate spillTransaction;
+    private final StripedEventExecutor executor;
+    private final EventCoalescer coalescer;
+    private final ClienteEventCodec codec;
+    private final ClienteEventMetrics metrics;
+    private final ClienteChangeFeed changeFeed;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final SpillJournal journal;
+    private final Map<Long, Deque<ClienteEvent>> inFlight = new ConcurrentHashMap<>();
 
     @Value("${kafka.topic.cliente-events:cliente-events}")
     private String topicName;
 
-    public ClienteEventProducer(KafkaTemplate<String, String> kafkaTemplate) {
+    @Value("${kafka.outbox.enabled:false}")
+    private boolean outboxEnabled;
+
+    public ClienteEventProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                ClienteEventCodec codec,
+                                OutboxEventRepository outboxEventRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                ClienteChangeFeed changeFeed,
+                                CircuitBreaker kafkaCircuitBreaker,
+                                Bulkhead kafkaBulkhead,
+                                ObjectProvider<SpillJournal> journal,
+                                @Value("${kafka.executor.lanes:4}") int lanes,
+                                @Value("${kafka.executor.queue-capacity:10000}") int queueCapacity,
+                                @Value("${kafka.executor.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+                                @Value("${kafka.executor.block-timeout:100ms}") Duration blockTimeout,
+                                @Value("${kafka.coalesce.window:0ms}") Duration coalesceWindow,
+                                @Value("${kafka.coalesce.max-pending:10000}") int coalesceMaxPending) {
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        this.outboxEventRepository = outboxEventRepository;
+        this.spillTransaction = new TransactionTemplate(transactionManager);
+        this.spillTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = new StripedEventExecutor(lanes, queueCapacity, overflowPolicy, blockTimeout, meterRegistry);
+        this.codec = codec;
+        this.metrics = new ClienteEventMetrics(meterRegistry);
+        this.changeFeed = changeFeed;
+        this.circuitBreaker = kafkaCircuitBreaker;
+        this.bulkhead = kafkaBulkhead;
+        this.journal = journal.getIfAvailable();
+        this.coalescer = coalesceWindow.isZero()
+                ? null
+                : new EventCoalescer(coalesceWindow, coalesceMaxPending, this::enqueue, meterRegistry);
     }
 
-    /**
-     * Callback para resultado de envío.
-     */
-    private final BiConsumer<SendResult<String, String>, Throwable> sendCallback = (result, ex) -> {
-        if (ex != null) {
-            log.error("Error enviando evento a Kafka: {}", ex.getMessage());
-        } else {
-            log.info("Evento enviado exitosamente a topic: {}, partition: {}, offset: {}",
-                    result.getRecordMetadata().topic(),
-                    result.getRecordMetadata().partition(),
-                    result.getRecordMetadata().offset());
+    @PreDestroy
+    void shutdown() {
+        if (coalescer != null) {
+            coalescer.close();
         }
-    };
+        executor.close();
+    }
 
     /**
      * Envía evento de cliente creado.
@@ -59,6 +123,20 @@ public class ClienteEventProducer {
         sendEvent(event);
     }
 
+    /**
+     * Envía en conjunto los eventos de clientes creados en un lote.
+     */
+    public void sendClienteCreatedEvents(List<Cliente> clientes) {
+        List<ClienteEvent> events = clientes.stream()
+                .map(cliente -> ClienteEvent.created(
+                        cliente.getId(),
+                        cliente.getNombre(),
+                        cliente.getIdentificacion(),
+                        cliente.getEstado()))
+                .toList();
+        sendEvents(events);
+    }
+
     /**
      * Envía evento de cliente actualizado.
      */
@@ -72,6 +150,14 @@ public class ClienteEventProducer {
         sendEvent(event);
     }
 
+    /**
+     * Envía evento delta de cliente actualizado parcialmente.
+     */
+    public void sendClientePatchedEvent(Long clienteId, Map<String, String> cambios) {
+        ClienteEvent event = ClienteEvent.patched(clienteId, cambios);
+        sendEvent(event);
+    }
+
     /**
      * Envía evento de cliente eliminado.
      */
@@ -81,26 +167,218 @@ public class ClienteEventProducer {
     }
 
     /**
-     * Método genérico para enviar eventos.
-     * Ejecuta en hilo separado para no bloquear la operación principal.
-     * Fire-and-forget: si Kafka no está disponible, solo registra un warning.
+     * Envía un único evento; ver sendEvents.
+     * Con outbox se escribe en la transacción; si no, después del commit se encola
+     * en el carril de su clienteId. Si el carril está lleno se aplica la política
+     * de overflow (BLOCK, DROP o SPILL al journal/outbox) y si Kafka no está
+     * disponible el evento queda en el journal local para reenviarse.
      */
     private void sendEvent(ClienteEvent event) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                String eventJson = objectMapper.writeValueAsString(event);
-                String key = String.valueOf(event.clienteId());
-
-                kafkaTemplate.send(topicName, key, eventJson)
-                        .whenComplete(sendCallback);
-
-                log.info("Enviando evento {} para cliente ID: {}", event.eventType(), event.clienteId());
-            } catch (JsonProcessingException e) {
-                log.error("Error serializando evento: {}", e.getMessage());
-            } catch (Exception e) {
-                log.warn("Kafka no disponible. Evento {} para cliente ID: {} no enviado: {}",
-                        event.eventType(), event.clienteId(), e.getMessage());
+        sendEvents(List.of(event));
+    }
+
+    /**
+     * Envía los eventos después del commit: cada uno se encola en el carril
+     * de su clienteId, así CREATED/UPDATED/DELETED de un cliente no se reordenan.
+     */
+    private void sendEvents(List<ClienteEvent> events) {
+        // El change feed solo publica cambios confirmados, igual que Kafka
+        TransactionCallbacks.afterCommit(() -> changeFeed.append(events));
+        if (outboxEnabled) {
+            writeToOutbox(events);
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            try (RequestTiming.Scope ignored = RequestTiming.phase(Phase.KAFKA)) {
+                events.forEach(this::dispatch);
             }
         });
     }
+
+    private void dispatch(ClienteEvent event) {
+        if (coalescer != null) {
+            coalescer.submit(event);
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(ClienteEvent event) {
+        long enqueuedAt = System.nanoTime();
+        metrics.enqueued(event.eventType());
+        executor.submit(event.clienteId(), () -> publish(event, enqueuedAt), () -> spillToOutbox(event));
+    }
+
+    /**
+     * Deriva un evento que no cupo en la cola al journal local o, sin journal,
+     * al outbox para que lo publique OutboxRelay.
+     */
+    private void spillToOutbox(ClienteEvent event) {
+        if (journal != null) {
+            writeToJournalInOrder(event);
+            return;
+        }
+        try {
+            spillTransaction.executeWithoutResult(status -> writeToOutbox(List.of(event)));
+        } catch (Exception e) {
+            log.error("Error derivando evento {} para cliente ID: {} al outbox: {}",
+                    event.eventType(), event.clienteId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe los eventos en el outbox; participa en la transacción del llamador,
+     * así un rollback también descarta los eventos.
+     */
+    private void writeToOutbox(List<ClienteEvent> events) {
+        List<OutboxEvent> rows = new ArrayList<>(events.size());
+        for (ClienteEvent event : events) {
+            rows.add(OutboxEvent.builder()
+                    .topic(topicName)
+                    .messageKey(String.valueOf(event.clienteId()))
+                    .eventType(event.eventType())
+                    .payload(codec.encode(event))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        outboxEventRepository.saveAll(rows);
+    }
+
+    /**
+     * Escribe el evento en el journal local; un error de disco es lo único que lo pierde.
+     */
+    private void writeToJournal(ClienteEvent event) {
+        try {
+            journal.append(event);
+        } catch (Exception e) {
+            log.error("Error escribiendo evento {} para cliente ID: {} en el journal: {}",
+                    event.eventType(), event.clienteId(), e.getMessage());
+        }
+    }
+
+    private void publish(ClienteEvent event, long enqueuedAt) {
+        byte[] payload;
+        try {
+            payload = codec.encode(event);
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            metrics.failed(enqueuedAt, e, false);
+            log.error("Error serializando evento: {}", e.getMessage());
+            return;
+        }
+        if (journal != null && !claimKey(event)) {
+            // Quedó detrás de los pendientes del journal o del envío en curso de su clienteId
+            return;
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            undelivered(event, enqueuedAt, BulkheadFullException.createBulkheadFullException(bulkhead));
+            return;
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.onComplete();
+            undelivered(event, enqueuedAt, CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+            return;
+        }
+
+        long sendStartedAt = System.nanoTime();
+        try {
+            String key = String.valueOf(event.clienteId());
+            CompletableFuture<SendResult<String, byte[]>> future = kafkaTemplate.send(topicName, key, payload);
+            metrics.sent(sendStartedAt);
+
+            future.whenComplete((result, ex) -> {
+                long elapsed = System.nanoTime() - sendStartedAt;
+                if (ex != null) {
+                    circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, ex);
+                    metrics.failed(enqueuedAt, ex, true);
+                    log.error("Error enviando evento a Kafka: {}", ex.getMessage());
+                    releaseKey(event, true);
+                } else {
+                    circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+                    metrics.acked(enqueuedAt);
+                    log.info("Evento enviado exitosamente a topic: {}, partition: {}, offset: {}",
+                            result.getRecordMetadata().topic(),
+                            result.getRecordMetadata().partition(),
+                            result.getRecordMetadata().offset());
+                    releaseKey(event, false);
+                }
+            });
+
+            log.info("Enviando evento {} para cliente ID: {}", event.eventType(), event.clienteId());
+        } catch (Exception e) {
+            circuitBreaker.onError(System.nanoTime() - sendStartedAt, TimeUnit.NANOSECONDS, e);
+            undelivered(event, enqueuedAt, e);
+        } finally {
+            // El bulkhead acota las llamadas a send en curso (las que pueden bloquear), no los acks
+            bulkhead.onComplete();
+        }
+    }
+
+    /**
+     * Reserva el clienteId para enviar el evento. Con pendientes en el journal el evento
+     * va detrás de ellos; con un envío en curso de la misma clave queda retenido hasta
+     * conocer su resultado, así nunca se adelanta a un envío que todavía puede fallar.
+     *
+     * @return true si el evento debe enviarse ahora
+     */
+    private boolean claimKey(ClienteEvent event) {
+        Deque<ClienteEvent> claimed = new ArrayDeque<>();
+        return inFlight.compute(event.clienteId(), (key, held) -> {
+            if (held != null) {
+                held.addLast(event);
+                return held;
+            }
+            if (!journal.isEmpty()) {
+                writeToJournal(event);
+                return null;
+            }
+            return claimed;
+        }) == claimed;
+    }
+
+    /**
+     * Libera el clienteId con el resultado del envío: si falló el evento va al journal
+     * y detrás de él los retenidos mientras estaba en curso, que también se reenvían
+     * desde el journal cuando el envío tuvo éxito.
+     */
+    private void releaseKey(ClienteEvent event, boolean failed) {
+        if (journal == null) {
+            return;
+        }
+        inFlight.compute(event.clienteId(), (key, held) -> {
+            if (failed) {
+                writeToJournal(event);
+            }
+            if (held != null) {
+                held.forEach(this::writeToJournal);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Escribe en el journal un evento que no pasó por el carril: si su clienteId tiene
+     * un envío en curso queda retenido detrás de él.
+     */
+    private void writeToJournalInOrder(ClienteEvent event) {
+        inFlight.compute(event.clienteId(), (key, held) -> {
+            if (held != null) {
+                held.addLast(event);
+                return held;
+            }
+            writeToJournal(event);
+            return null;
+        });
+    }
+
+    private void undelivered(ClienteEvent event, long enqueuedAt, Exception e) {
+        metrics.failed(enqueuedAt, e, false);
+        if (journal != null) {
+            releaseKey(event, true);
+            log.debug("Kafka no disponible. Evento {} para cliente ID: {} derivado al journal: {}",
+                    event.eventType(), event.clienteId(), e.getMessage());
+        } else {
+            log.warn("Kafka no disponible. Evento {} para cliente ID: {} no enviado: {}",
+                    event.eventType(), event.clienteId(), e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,105 @@
+package com.prueba.microservice1.kafka;
+
+import com.prueba.microservice1.dto.ClienteResponseDTO;
+import com.prueba.microservice1.mapper.ClienteMapper;
+import com.prueba.microservice1.repository.ClienteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backfill del topic de estado: al arrancar recorre la tabla por lotes keyset
+ * y escribe el estado de cada cliente en el outbox, así el topic compactado queda
+ * completo aunque existan clientes anteriores a su habilitación.
+ * Cada lote bloquea sus filas mientras escribe en el outbox: un DELETE concurrente
+ * espera y su tombstone queda después del estado, nunca antes.
+ */
+@Component
+@ConditionalOnProperty(name = {"kafka.state-topic.enabled", "kafka.state-topic.backfill.enabled"}, havingValue = "true")
+@Slf4j
+public class ClienteStateBackfill {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ClienteRepository clienteRepository;
+    private final ClienteMapper clienteMapper;
+    private final ClienteStatePublisher statePublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${kafka.state-topic.backfill.batch-size:500}")
+    private int batchSize;
+
+    public ClienteStateBackfill(ClienteRepository clienteRepository,
+                                ClienteMapper clienteMapper,
+                                ClienteStatePublisher statePublisher,
+                                PlatformTransactionManager transactionManager) {
+        this.clienteRepository = clienteRepository;
+        this.clienteMapper = clienteMapper;
+        this.statePublisher = statePublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::backfill, "cliente-state-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Escribe en el outbox el estado de todos los clientes.
+     *
+     * @return cantidad de estados escritos
+     */
+    long backfill() {
+        long start = System.nanoTime();
+        long total = 0;
+        Long cursor = 0L;
+        List<ClienteResponseDTO> batch;
+        do {
+            batch = backfillBatch(cursor);
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            total += batch.size();
+            cursor = batch.get(batch.size() - 1).id();
+        } while (batch.size() == batchSize);
+
+        log.info("Backfill del topic de estado: {} clientes en {} ms",
+                total, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return total;
+    }
+
+    /**
+     * Escribe un lote en su propia transacción; un conflicto de locks se reintenta.
+     *
+     * @return el lote escrito, o null si se agotaron los intentos
+     */
+    private List<ClienteResponseDTO> backfillBatch(Long cursor) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    List<ClienteResponseDTO> batch = clienteMapper.toResponseDTOList(
+                            clienteRepository.findPageForUpdate(cursor, PageRequest.ofSize(batchSize)));
+                    statePublisher.publishState(batch);
+                    return batch;
+                });
+            } catch (DataAccessException e) {
+                log.warn("Lote del backfill desde id {} falló (intento {}/{}): {}",
+                        cursor, attempt, MAX_ATTEMPTS, e.getMessage());
+            }
+        }
+        log.error("Backfill del topic de estado cancelado en el id {}", cursor);
+        return null;
+    }
+}
@@ -0,0 +1,103 @@
+package com.prueba.microservice1.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.prueba.microservice1.dto.ClienteResponseDTO;
+import com.prueba.microservice1.entity.OutboxEvent;
+import com.prueba.microservice1.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publica el estado completo de cada cliente (ClienteResponseDTO en JSON) en un
+ * topic compactado con clave clienteId; una eliminación publica un tombstone.
+ * Con la compactación el topic conserva la última versión de cada cliente y un
+ * consumidor puede materializar la tabla leyéndolo desde el inicio.
+ * Los mensajes se escriben siempre en el outbox, dentro de la transacción del cambio,
+ * y los envía OutboxRelay: ningún request espera a Kafka y un broker caído no los pierde.
+ * Orden por cliente: quien escribe en el outbox ya tiene el lock de la fila (UPDATE,
+ * DELETE o SELECT ... FOR UPDATE del backfill), así el id del outbox sigue el orden
+ * de commit y un tombstone nunca queda antes que un estado anterior.
+ * Deshabilitado por defecto (kafka.state-topic.enabled).
+ */
+@Component
+public class ClienteStatePublisher {
+
+    static final String STATE = "STATE";
+    static final String TOMBSTONE = "TOMBSTONE";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectWriter writer;
+
+    @Value("${kafka.state-topic.enabled:false}")
+    private boolean enabled;
+
+    @Value("${kafka.topic.cliente-state:cliente-state}")
+    private String topicName;
+
+    public ClienteStatePublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.writer = objectMapper.writerFor(ClienteResponseDTO.class);
+    }
+
+    /**
+     * Escribe en el outbox el estado actual de los clientes.
+     * Participa en la transacción del llamador, así un rollback también lo descarta.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishState(List<ClienteResponseDTO> clientes) {
+        if (!enabled || clientes.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> rows = new ArrayList<>(clientes.size());
+        for (ClienteResponseDTO cliente : clientes) {
+            rows.add(message(String.valueOf(cliente.id()), STATE, serialize(cliente)));
+        }
+        outboxEventRepository.saveAll(rows);
+    }
+
+    /**
+     * Escribe en el outbox el estado actual del cliente.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishState(ClienteResponseDTO cliente) {
+        publishState(List.of(cliente));
+    }
+
+    /**
+     * Escribe en el outbox un tombstone (valor null) para que la compactación elimine al cliente.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishTombstone(Long clienteId) {
+        if (!enabled) {
+            return;
+        }
+        outboxEventRepository.save(message(String.valueOf(clienteId), TOMBSTONE, null));
+    }
+
+    private OutboxEvent message(String key, String type, byte[] payload) {
+        return OutboxEvent.builder()
+                .topic(topicName)
+                .messageKey(key)
+                .eventType(type)
+                .payload(payload)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private byte[] serialize(ClienteResponseDTO cliente) {
+        try {
+            return writer.writeValueAsBytes(cliente);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Error serializando estado del cliente", e);
+        }
+    }
+}
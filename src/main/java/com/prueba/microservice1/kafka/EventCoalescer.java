@@ -0,0 +1,233 @@
+package com.prueba.microservice1.kafka;
+
+import com.prueba.microservice1.kafka.ClienteEvent.EventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Etapa de coalescencia previa al envío: retiene los eventos de cada clienteId
+ * durante una ventana y los fusiona antes de entregarlos.
+ * UPDATED sucesivos quedan en el último estado, PATCHED sucesivos unen sus cambios
+ * y un CREATED seguido de DELETED dentro de la ventana se anula. Un PATCHED nunca se
+ * descarta por un UPDATED posterior: sus cambios (edad, dirección...) no viajan en UPDATED.
+ * Los eventos de una clave se entregan en orden: la ventana se abre con el primer
+ * evento y todas las entregas salen del mismo hilo (tras close, del llamador una vez
+ * vaciado el scheduler).
+ * Las ventanas abiertas están acotadas por maxPending: al llegar al límite la ventana
+ * más antigua se entrega antes de tiempo, así la memoria no crece con las claves.
+ */
+@Slf4j
+public class EventCoalescer implements AutoCloseable {
+
+    private static final String CREATED = EventType.CREATED.name();
+    private static final String UPDATED = EventType.UPDATED.name();
+    private static final String DELETED = EventType.DELETED.name();
+    private static final String PATCHED = EventType.PATCHED.name();
+
+    private final Duration window;
+    private final int maxPending;
+    private final Consumer<ClienteEvent> downstream;
+    private final ScheduledExecutorService scheduler;
+    private final Counter coalescedCounter;
+    private final Counter earlyFlushCounter;
+    // Orden de inserción: la primera entrada es la ventana más antigua
+    private final Map<Long, List<ClienteEvent>> pending = new LinkedHashMap<>();
+    private boolean closed;
+
+    public EventCoalescer(Duration window, int maxPending, Consumer<ClienteEvent> downstream,
+                          MeterRegistry meterRegistry) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("La ventana de coalescencia debe ser mayor a 0");
+        }
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("kafka.coalesce.max-pending debe ser mayor a 0");
+        }
+        this.window = window;
+        this.maxPending = maxPending;
+        this.downstream = downstream;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cliente-events-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.coalescedCounter = Counter.builder("cliente.events.coalesced")
+                .description("Eventos absorbidos por la coalescencia (no enviados)")
+                .register(meterRegistry);
+        this.earlyFlushCounter = Counter.builder("cliente.events.coalescing.early-flush")
+                .description("Ventanas entregadas antes de vencer por llegar a max-pending")
+                .register(meterRegistry);
+        Gauge.builder("cliente.events.coalescing.pending", this, EventCoalescer::pendingKeys)
+                .description("Clientes con eventos retenidos en la ventana de coalescencia")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Agrega el evento a la ventana de su clienteId; la primera vez la abre.
+     * Después de close las ventanas nuevas vencen de inmediato y, con el scheduler ya
+     * detenido, el evento se entrega directamente cuando terminaron los flush pendientes.
+     * La entrega nunca ocurre con el lock tomado: un downstream lento no frena a los productores.
+     */
+    public void submit(ClienteEvent event) {
+        Long key = event.clienteId();
+        synchronized (this) {
+            List<ClienteEvent> events = pending.get(key);
+            if (events == null) {
+                if (!closed && pending.size() >= maxPending) {
+                    flushEldest();
+                }
+                try {
+                    scheduler.schedule(() -> flush(key), closed ? 0 : window.toNanos(), TimeUnit.NANOSECONDS);
+                    events = new ArrayList<>(2);
+                    pending.put(key, events);
+                } catch (RejectedExecutionException e) {
+                    // Scheduler detenido por close: se entrega directamente, fuera del lock
+                    log.debug("Coalescencia cerrada, entrega directa para cliente ID: {}", key);
+                }
+            }
+            if (events != null) {
+                int coalesced = merge(events, event);
+                if (coalesced > 0) {
+                    coalescedCounter.increment(coalesced);
+                }
+                return;
+            }
+        }
+        awaitScheduler();
+        deliver(List.of(event));
+    }
+
+    /**
+     * Cierra la ventana de la clave y entrega lo que quedó tras la fusión.
+     * Las entregas salen todas del hilo del scheduler, así una clave conserva su orden
+     * aunque se abra una ventana nueva mientras se entrega la anterior.
+     */
+    private void flush(Long key) {
+        List<ClienteEvent> events;
+        synchronized (this) {
+            events = pending.remove(key);
+        }
+        if (events != null) {
+            deliver(events);
+        }
+    }
+
+    /**
+     * Entrega ya la ventana más antigua para hacer lugar a una nueva. La entrega va
+     * al scheduler, detrás de los flush anteriores, así la clave conserva su orden.
+     */
+    private void flushEldest() {
+        Iterator<List<ClienteEvent>> eldest = pending.values().iterator();
+        List<ClienteEvent> events = eldest.next();
+        eldest.remove();
+        earlyFlushCounter.increment();
+        scheduler.execute(() -> deliver(events));
+    }
+
+    private void deliver(List<ClienteEvent> events) {
+        for (ClienteEvent event : events) {
+            try {
+                downstream.accept(event);
+            } catch (Exception e) {
+                log.error("Error entregando evento {} para cliente ID: {}: {}",
+                        event.eventType(), event.clienteId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Fusiona el evento con los pendientes de la misma clave.
+     *
+     * @return cantidad de eventos que dejan de enviarse por esta llamada, contando
+     *         el recibido si se absorbe; cliente.events.coalesced acumula estos valores
+     */
+    static int merge(List<ClienteEvent> events, ClienteEvent event) {
+        String type = event.eventType();
+        if (DELETED.equals(type)) {
+            int dropped = events.size();
+            boolean created = dropped > 0 && CREATED.equals(events.get(0).eventType());
+            events.clear();
+            if (created) {
+                // Creado y eliminado dentro de la ventana: nadie llega a verlo
+                return dropped + 1;
+            }
+            events.add(event);
+            return dropped;
+        }
+
+        if (UPDATED.equals(type)) {
+            // Solo reemplaza UPDATED: un PATCHED previo lleva campos que UPDATED no tiene
+            int dropped = 0;
+            while (!events.isEmpty() && UPDATED.equals(last(events).eventType())) {
+                events.remove(events.size() - 1);
+                dropped++;
+            }
+            if (!events.isEmpty() && CREATED.equals(last(events).eventType())) {
+                ClienteEvent created = last(events);
+                events.set(events.size() - 1, new ClienteEvent(CREATED, event.clienteId(),
+                        event.nombreCliente(), event.identificacion(), event.estado(), created.timestamp()));
+                return dropped + 1;
+            }
+            events.add(event);
+            return dropped;
+        }
+
+        if (PATCHED.equals(type) && !events.isEmpty() && PATCHED.equals(last(events).eventType())) {
+            Map<String, String> cambios = new LinkedHashMap<>(last(events).cambios());
+            cambios.putAll(event.cambios());
+            events.set(events.size() - 1, new ClienteEvent(PATCHED, event.clienteId(),
+                    null, null, null, event.timestamp(), Map.copyOf(cambios)));
+            return 1;
+        }
+
+        events.add(event);
+        return 0;
+    }
+
+    private static ClienteEvent last(List<ClienteEvent> events) {
+        return events.get(events.size() - 1);
+    }
+
+    public synchronized int pendingKeys() {
+        return pending.size();
+    }
+
+    /**
+     * Deja de abrir ventanas y espera que venzan las abiertas.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        scheduler.shutdown();
+        awaitScheduler();
+    }
+
+    /**
+     * Espera que el scheduler, ya detenido, entregue las ventanas que quedaban abiertas.
+     */
+    private void awaitScheduler() {
+        try {
+            if (!scheduler.awaitTermination(window.toMillis() + 5000, TimeUnit.MILLISECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scheduler.shutdownNow();
+        }
+    }
+}
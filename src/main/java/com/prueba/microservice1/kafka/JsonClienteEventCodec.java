@@ -0,0 +1,43 @@
+package com.prueba.microservice1.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Formato JSON de ClienteEvent (formato por defecto).
+ */
+public class JsonClienteEventCodec implements ClienteEventCodec {
+
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    public JsonClienteEventCodec() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        this.writer = objectMapper.writerFor(ClienteEvent.class);
+        this.reader = objectMapper.readerFor(ClienteEvent.class);
+    }
+
+    @Override
+    public byte[] encode(ClienteEvent event) {
+        try {
+            return writer.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error serializando evento a JSON", e);
+        }
+    }
+
+    @Override
+    public ClienteEvent decode(byte[] payload) {
+        try {
+            return reader.readValue(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error deserializando evento JSON", e);
+        }
+    }
+}
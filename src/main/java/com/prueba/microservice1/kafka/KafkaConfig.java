@@ -1,16 +1,26 @@
 package com.prueba.microservice1.kafka;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.util.unit.DataSize;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -21,27 +31,67 @@ import java.util.Map;
 @Configuration
 public class KafkaConfig {
 
+    private static final String KAFKA = "kafka";
+
     @Value("${spring.kafka.bootstrap-servers:localhost:29092}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.producer.properties.max.block.ms:5000}")
+    private int maxBlockMs;
+
+    @Value("${spring.kafka.producer.properties.request.timeout.ms:5000}")
+    private int requestTimeoutMs;
+
+    @Value("${spring.kafka.producer.properties.delivery.timeout.ms:10000}")
+    private int deliveryTimeoutMs;
+
     @Value("${kafka.topic.cliente-events:cliente-events}")
     private String clienteEventsTopic;
 
+    @Value("${kafka.topic.cliente-state:cliente-state}")
+    private String clienteStateTopic;
+
+    @Value("${kafka.event-format:json}")
+    private String eventFormat;
+
+    @Value("${kafka.journal.dir:./data/journal}")
+    private Path journalDir;
+
+    @Value("${kafka.journal.segment-size:16MB}")
+    private DataSize journalSegmentSize;
+
+    /**
+     * Formato de los eventos en el topic: json (por defecto) o binary.
+     */
+    @Bean
+    public ClienteEventCodec clienteEventCodec() {
+        return switch (eventFormat.strip().toLowerCase()) {
+            case "json" -> new JsonClienteEventCodec();
+            case "binary" -> new BinaryClienteEventCodec();
+            default -> throw new IllegalStateException("kafka.event-format no soportado: " + eventFormat);
+        };
+    }
+
     /**
      * Configuración del Producer.
+     * El valor viaja como bytes ya codificados por ClienteEventCodec.
      */
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, byte[]> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         // Configuración de reintentos y acknowledgments
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, 1000);
         // Idempotencia para evitar duplicados
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        // Límites de espera: sin ellos rigen los defaults de Kafka (60s para send, 120s por entrega)
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
@@ -49,10 +99,37 @@ public class KafkaConfig {
      * Template para envío de mensajes.
      */
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 
+    /**
+     * Circuit breaker del envío a Kafka: con el broker caído el producer no llama
+     * a send (que bloquearía hasta max.block.ms) y deriva los eventos al journal.
+     * Configurado en resilience4j.circuitbreaker.instances.kafka.
+     */
+    @Bean
+    public CircuitBreaker kafkaCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return circuitBreakerRegistry.circuitBreaker(KAFKA);
+    }
+
+    /**
+     * Bulkhead de semáforo que limita los send concurrentes; sin permiso el evento va al journal.
+     */
+    @Bean
+    public Bulkhead kafkaBulkhead(BulkheadRegistry bulkheadRegistry) {
+        return bulkheadRegistry.bulkhead(KAFKA);
+    }
+
+    /**
+     * Journal local de eventos que no pudieron enviarse.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "kafka.journal.enabled", havingValue = "true", matchIfMissing = true)
+    public SpillJournal spillJournal(MeterRegistry meterRegistry) throws IOException {
+        return new SpillJournal(journalDir, Math.toIntExact(journalSegmentSize.toBytes()), meterRegistry);
+    }
+
     /**
      * Creación automática del topic si no existe.
      */
@@ -63,4 +140,17 @@ public class KafkaConfig {
                 .replicas(1)
                 .build();
     }
+
+    /**
+     * Topic compactado con el último estado de cada cliente.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "kafka.state-topic.enabled", havingValue = "true")
+    public NewTopic clienteStateTopic() {
+        return TopicBuilder.name(clienteStateTopic)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
 }
@@ -0,0 +1,96 @@
+package com.prueba.microservice1.kafka;
+
+import com.prueba.microservice1.entity.OutboxEvent;
+import com.prueba.microservice1.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Relay del outbox: lee eventos pendientes por lotes, los publica en Kafka
+ * sin esperar uno por uno (envíos en pipeline) y borra en bloque los confirmados.
+ * Entrega at-least-once: un evento solo se borra después del ack del broker.
+ */
+@Component
+@ConditionalOnProperty(name = "kafka.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Value("${kafka.outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${kafka.outbox.relay.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    /**
+     * Drena el outbox mientras haya lotes completos confirmados.
+     */
+    @Scheduled(fixedDelayString = "${kafka.outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    /**
+     * Publica un lote y borra los eventos confirmados.
+     * Se detiene en el primer fallo para conservar el orden de los pendientes.
+     *
+     * @return cantidad de eventos confirmados y borrados
+     */
+    int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findAllByOrderByIdAsc(PageRequest.ofSize(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, byte[]>>> futures = new ArrayList<>(batch.size());
+        try {
+            for (OutboxEvent event : batch) {
+                futures.add(kafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload()));
+            }
+        } catch (Exception e) {
+            log.warn("Kafka no disponible, relay del outbox pausado: {}", e.getMessage());
+        }
+
+        List<Long> confirmed = new ArrayList<>(futures.size());
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                confirmed.add(batch.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Evento del outbox {} no confirmado: {}", batch.get(i).getId(), e.getMessage());
+                break;
+            }
+        }
+
+        if (!confirmed.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(confirmed);
+            log.debug("Outbox: {} eventos publicados", confirmed.size());
+        }
+        return confirmed.size();
+    }
+}
@@ -0,0 +1,267 @@
+package com.prueba.microservice1.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal local de eventos no entregados: segmentos append-only mapeados en memoria.
+ * Los eventos se guardan en el formato binario de BinaryClienteEventCodec
+ * y un único lector (SpillJournalReplayer) los consume en orden.
+ *
+ * <pre>
+ * segmento  int posición de lectura confirmada | registros
+ * registro  int longitud | int crc32 | payload binario
+ * </pre>
+ * La longitud se escribe al final, así un registro a medio escribir queda en 0
+ * y marca el fin del segmento al reabrirlo. La posición de lectura se persiste
+ * en cada ack: tras un reinicio solo se reenvía lo no confirmado. Un segmento
+ * consumido se borra en cuanto deja de ser el segmento activo.
+ */
+@Slf4j
+public class SpillJournal implements AutoCloseable {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".journal";
+    private static final int SEGMENT_HEADER = Integer.BYTES;
+    private static final int RECORD_HEADER = 2 * Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final BinaryClienteEventCodec codec = new BinaryClienteEventCodec();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Counter journaledCounter;
+    private long nextSegmentId;
+    private long pending;
+
+    public SpillJournal(Path directory, int segmentSize, MeterRegistry meterRegistry) throws IOException {
+        if (segmentSize <= SEGMENT_HEADER + RECORD_HEADER) {
+            throw new IllegalArgumentException("kafka.journal.segment-size demasiado chico: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        recover();
+
+        this.journaledCounter = Counter.builder("cliente.events.journaled")
+                .description("Eventos escritos en el journal local por no poder enviarse")
+                .register(meterRegistry);
+        Gauge.builder("cliente.events.journal.pending", this, SpillJournal::pendingRecords)
+                .description("Eventos del journal local pendientes de reenvío")
+                .register(meterRegistry);
+        Gauge.builder("cliente.events.journal.segments", this, SpillJournal::segmentCount)
+                .description("Segmentos del journal local en disco")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Agrega el evento al final del journal.
+     */
+    public synchronized void append(ClienteEvent event) {
+        byte[] payload = codec.encode(event);
+        int size = RECORD_HEADER + payload.length;
+        if (SEGMENT_HEADER + size > segmentSize) {
+            throw new IllegalArgumentException("Evento de " + payload.length + " bytes no cabe en un segmento");
+        }
+        Segment active = segments.peekLast();
+        if (active == null || active.writePosition + size > segmentSize) {
+            if (active != null) {
+                active.buffer.force();
+            }
+            active = openSegment(nextSegmentId++);
+            segments.addLast(active);
+        }
+
+        MappedByteBuffer buffer = active.buffer;
+        int position = active.writePosition;
+        buffer.putInt(position + Integer.BYTES, crc(payload));
+        buffer.put(position + RECORD_HEADER, payload);
+        buffer.putInt(position, payload.length);
+        active.writePosition += size;
+        pending++;
+        journaledCounter.increment();
+    }
+
+    /**
+     * Devuelve hasta max eventos pendientes, en orden, sin confirmarlos.
+     */
+    public synchronized List<ClienteEvent> peek(int max) {
+        List<ClienteEvent> events = new ArrayList<>(Math.min(max, (int) Math.min(pending, Integer.MAX_VALUE)));
+        for (Segment segment : segments) {
+            int position = segment.readPosition;
+            while (position < segment.writePosition && events.size() < max) {
+                int length = segment.buffer.getInt(position);
+                byte[] payload = new byte[length];
+                segment.buffer.get(position + RECORD_HEADER, payload);
+                events.add(codec.decode(payload));
+                position += RECORD_HEADER + length;
+            }
+            if (events.size() == max) {
+                break;
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Confirma los primeros count eventos pendientes (ya publicados).
+     */
+    public synchronized void acknowledge(int count) {
+        while (count > 0 && !segments.isEmpty()) {
+            Segment segment = segments.peekFirst();
+            while (count > 0 && segment.readPosition < segment.writePosition) {
+                segment.readPosition += RECORD_HEADER + segment.buffer.getInt(segment.readPosition);
+                pending--;
+                count--;
+            }
+            segment.buffer.putInt(0, segment.readPosition);
+            if (segment.readPosition < segment.writePosition || segment == segments.peekLast()) {
+                break;
+            }
+            segments.removeFirst();
+            delete(segment);
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return pending == 0;
+    }
+
+    public synchronized long pendingRecords() {
+        return pending;
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+            closeQuietly(segment);
+        }
+        segments.clear();
+    }
+
+    /**
+     * Reabre los segmentos existentes y ubica el fin de cada uno validando el crc.
+     */
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> path.getFileName().toString().startsWith(PREFIX)
+                            && path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            long id = segmentId(file);
+            nextSegmentId = Math.max(nextSegmentId, id + 1);
+            Segment segment = openSegment(id);
+            int readPosition = segment.buffer.getInt(0);
+            segment.readPosition = Math.max(SEGMENT_HEADER, Math.min(readPosition, segmentSize));
+            segment.writePosition = segment.readPosition;
+            while (isValidRecord(segment.buffer, segment.writePosition)) {
+                segment.writePosition += RECORD_HEADER + segment.buffer.getInt(segment.writePosition);
+                pending++;
+            }
+            segments.addLast(segment);
+        }
+        // Los segmentos consumidos que no son el último ya no hacen falta
+        while (segments.size() > 1 && segments.peekFirst().readPosition == segments.peekFirst().writePosition) {
+            delete(segments.removeFirst());
+        }
+        if (pending > 0) {
+            log.warn("Journal de eventos con {} eventos pendientes de reenvío en {}", pending, directory);
+        }
+    }
+
+    private boolean isValidRecord(MappedByteBuffer buffer, int position) {
+        if (position + RECORD_HEADER > segmentSize) {
+            return false;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + RECORD_HEADER + length > segmentSize) {
+            return false;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(position + RECORD_HEADER, payload);
+        return buffer.getInt(position + Integer.BYTES) == crc(payload);
+    }
+
+    private Segment openSegment(long id) {
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, id, SUFFIX));
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            Segment segment = new Segment(path, channel, buffer);
+            if (buffer.getInt(0) == 0) {
+                buffer.putInt(0, SEGMENT_HEADER);
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el segmento " + path, e);
+        }
+    }
+
+    private void delete(Segment segment) {
+        closeQuietly(segment);
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            // Con el archivo aún mapeado (Windows) el borrado falla; al reabrir se descarta
+            // porque su posición de lectura ya llegó al final
+            log.debug("No se pudo borrar el segmento {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            segment.channel.close();
+        } catch (IOException e) {
+            log.debug("Error cerrando el segmento {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private static long segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int readPosition = SEGMENT_HEADER;
+        private int writePosition = SEGMENT_HEADER;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
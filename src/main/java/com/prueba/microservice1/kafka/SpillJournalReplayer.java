@@ -0,0 +1,110 @@
+package com.prueba.microservice1.kafka;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reenvía en orden los eventos del journal local y confirma los que Kafka aceptó.
+ * Cada lote cuenta como una llamada del circuit breaker: con el circuito abierto
+ * no se intenta y en half-open el lote hace de llamada de prueba. Su duración es la
+ * del registro más lento (envío a ack), no la del lote: un lote grande no es una
+ * llamada lenta.
+ */
+@Component
+@ConditionalOnProperty(name = "kafka.journal.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SpillJournalReplayer {
+
+    private final SpillJournal journal;
+    private final CircuitBreaker kafkaCircuitBreaker;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final ClienteEventCodec codec;
+
+    @Value("${kafka.topic.cliente-events:cliente-events}")
+    private String topicName;
+
+    @Value("${kafka.journal.replay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${kafka.outbox.relay.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    /**
+     * Drena el journal mientras haya lotes completos confirmados.
+     */
+    @Scheduled(fixedDelayString = "${kafka.journal.replay.poll-interval-ms:1000}")
+    public void replay() {
+        int replayed;
+        do {
+            replayed = replayBatch();
+        } while (replayed == batchSize);
+    }
+
+    /**
+     * Publica un lote del journal y confirma el prefijo aceptado por Kafka.
+     *
+     * @return cantidad de eventos confirmados
+     */
+    int replayBatch() {
+        if (journal.isEmpty() || !kafkaCircuitBreaker.tryAcquirePermission()) {
+            return 0;
+        }
+        List<ClienteEvent> batch = journal.peek(batchSize);
+        long start = System.nanoTime();
+
+        // Cada futuro devuelve la latencia de su registro, medida al llegar el ack
+        List<CompletableFuture<Long>> acks = new ArrayList<>(batch.size());
+        Throwable failure = null;
+        try {
+            for (ClienteEvent event : batch) {
+                long sentAt = System.nanoTime();
+                acks.add(kafkaTemplate.send(topicName, String.valueOf(event.clienteId()), codec.encode(event))
+                        .thenApply(result -> System.nanoTime() - sentAt));
+            }
+        } catch (Exception e) {
+            failure = e;
+        }
+
+        int confirmed = 0;
+        long slowest = 0;
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (CompletableFuture<Long> ack : acks) {
+            try {
+                slowest = Math.max(slowest, ack.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                confirmed++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                failure = e;
+                break;
+            }
+        }
+
+        journal.acknowledge(confirmed);
+        if (failure == null) {
+            kafkaCircuitBreaker.onSuccess(slowest, TimeUnit.NANOSECONDS);
+            log.info("Journal: {} eventos reenviados, {} pendientes", confirmed, journal.pendingRecords());
+        } else {
+            kafkaCircuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, failure);
+            log.warn("Reenvío del journal interrumpido tras {} eventos: {}", confirmed, failure.getMessage());
+        }
+        return confirmed;
+    }
+}
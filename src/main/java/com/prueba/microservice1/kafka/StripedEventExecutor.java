@@ -0,0 +1,171 @@
+package com.prueba.microservice1.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor particionado por clave: N carriles de un solo hilo, cada uno con cola acotada.
+ * Las tareas con la misma clave (clienteId) caen siempre en el mismo carril,
+ * por lo que se ejecutan en el orden en que fueron encoladas.
+ * Cuando la cola de un carril está llena se aplica la política de overflow.
+ */
+@Slf4j
+public class StripedEventExecutor implements AutoCloseable {
+
+    /**
+     * Política cuando la cola del carril está llena.
+     * BLOCK espera hasta block-timeout y luego delega al handler de spill (o descarta
+     * si no hay); DROP descarta de inmediato; SPILL delega la tarea al handler de spill
+     * (persistencia para envío posterior).
+     */
+    public enum OverflowPolicy {
+        BLOCK, DROP, SPILL
+    }
+
+    private final ThreadPoolExecutor[] lanes;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration blockTimeout;
+    private final Counter rejectedCounter;
+    private final Counter spilledCounter;
+
+    public StripedEventExecutor(int laneCount,
+                                int queueCapacity,
+                                OverflowPolicy overflowPolicy,
+                                Duration blockTimeout,
+                                MeterRegistry meterRegistry) {
+        if (laneCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("lanes y queue-capacity deben ser mayores a 0");
+        }
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        AtomicInteger threadIndex = new AtomicInteger();
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "cliente-events-" + threadIndex.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            lanes[i].prestartCoreThread();
+        }
+
+        Gauge.builder("cliente.events.queue.depth", this, StripedEventExecutor::queueDepth)
+                .description("Eventos encolados pendientes de envío")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("cliente.events.rejected")
+                .description("Eventos descartados por cola llena")
+                .tag("policy", overflowPolicy.name())
+                .register(meterRegistry);
+        this.spilledCounter = Counter.builder("cliente.events.spilled")
+                .description("Eventos derivados al spill por cola llena")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encola la tarea en el carril de la clave.
+     *
+     * @param key   clave de orden (clienteId); null usa el primer carril
+     * @param task  tarea de envío
+     * @param spill acción usada cuando el carril está lleno (SPILL, o BLOCK tras block-timeout);
+     *              null si no hay dónde derivar
+     */
+    public void submit(Long key, Runnable task, Runnable spill) {
+        ThreadPoolExecutor lane = laneFor(key);
+        try {
+            lane.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (lane.isShutdown()) {
+                rejectedCounter.increment();
+                log.warn("Executor de eventos detenido, evento descartado para clave: {}", key);
+                return;
+            }
+            handleOverflow(lane, key, task, spill);
+        }
+    }
+
+    private void handleOverflow(ThreadPoolExecutor lane, Long key, Runnable task, Runnable spill) {
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    // El hilo del carril siempre está vivo, así que encolar directamente es seguro
+                    if (lane.getQueue().offer(task, blockTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+                if (spill != null) {
+                    // El evento ya está confirmado: se persiste para envío posterior en vez de perderlo
+                    spilledCounter.increment();
+                    log.debug("Cola de eventos llena tras {} ms, evento derivado al spill para clave: {}",
+                            blockTimeout.toMillis(), key);
+                    spill.run();
+                    return;
+                }
+                rejectedCounter.increment();
+                log.warn("Cola de eventos llena tras {} ms, evento descartado para clave: {}",
+                        blockTimeout.toMillis(), key);
+            }
+            case DROP -> {
+                rejectedCounter.increment();
+                log.warn("Cola de eventos llena, evento descartado para clave: {}", key);
+            }
+            case SPILL -> {
+                spilledCounter.increment();
+                spill.run();
+            }
+        }
+    }
+
+    private ThreadPoolExecutor laneFor(Long key) {
+        if (key == null) {
+            return lanes[0];
+        }
+        int hash = Long.hashCode(key);
+        hash ^= (hash >>> 16);
+        return lanes[Math.floorMod(hash, lanes.length)];
+    }
+
+    /**
+     * Total de tareas encoladas en todos los carriles.
+     */
+    public int queueDepth() {
+        int depth = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            depth += lane.getQueue().size();
+        }
+        return depth;
+    }
+
+    /**
+     * Detiene los carriles esperando que se vacíen las colas.
+     */
+    @Override
+    public void close() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            try {
+                if (!lane.awaitTermination(5, TimeUnit.SECONDS)) {
+                    lane.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lane.shutdownNow();
+            }
+        }
+    }
+}
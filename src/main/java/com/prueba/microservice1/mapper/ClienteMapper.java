@@ -3,6 +3,8 @@ package com.prueba.microservice1.mapper;
 import com.prueba.microservice1.dto.ClienteDTO;
 import com.prueba.microservice1.dto.ClienteResponseDTO;
 import com.prueba.microservice1.entity.Cliente;
+import com.prueba.microservice1.timing.RequestTiming;
+import com.prueba.microservice1.timing.RequestTiming.Phase;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -34,23 +36,29 @@ public class ClienteMapper {
      * Convierte entidad a DTO de respuesta.
      */
     public ClienteResponseDTO toResponseDTO(Cliente cliente) {
-        return TO_RESPONSE_DTO.apply(cliente);
+        try (RequestTiming.Scope ignored = RequestTiming.phase(Phase.MAPPING)) {
+            return TO_RESPONSE_DTO.apply(cliente);
+        }
     }
 
     /**
      * Convierte DTO a entidad.
      */
     public Cliente toEntity(ClienteDTO dto) {
-        return TO_ENTITY.apply(dto);
+        try (RequestTiming.Scope ignored = RequestTiming.phase(Phase.MAPPING)) {
+            return TO_ENTITY.apply(dto);
+        }
     }
 
     /**
      * Convierte lista de entidades a lista de DTOs.
      */
     public List<ClienteResponseDTO> toResponseDTOList(List<Cliente> clientes) {
-        return clientes.stream()
-                .map(TO_RESPONSE_DTO)
-                .toList();
+        try (RequestTiming.Scope ignored = RequestTiming.phase(Phase.MAPPING)) {
+            return clientes.stream()
+                    .map(TO_RESPONSE_DTO)
+                    .toList();
+        }
     }
 
     /**
@@ -1,35 +1,110 @@
 package com.prueba.microservice1.repository;
 
+import com.prueba.microservice1.dto.ClienteResponseDTO;
 import com.prueba.microservice1.entity.Cliente;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para operaciones CRUD de Cliente.
  * Extiende JpaRepository para funcionalidad automática.
  */
 @Repository
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, ClienteRepositoryCustom {
+
+    /**
+     * Filas que el driver JDBC trae por cada round trip al recorrer un Stream.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Proyección a ClienteResponseDTO: solo las columnas expuestas, sin contraseña,
+     * sin entidades administradas ni dirty checking.
+     */
+    String RESPONSE_PROJECTION = "SELECT new com.prueba.microservice1.dto.ClienteResponseDTO("
+            + "c.id, c.nombre, c.genero, c.edad, c.identificacion, c.direccion, c.telefono, c.estado, c.version) "
+            + "FROM Cliente c ";
 
     /**
      * Busca cliente por identificación.
      */
     Optional<Cliente> findByIdentificacion(String identificacion);
 
+    /**
+     * Proyección de un cliente por id.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE c.id = :id")
+    Optional<ClienteResponseDTO> findResponseById(@Param("id") Long id);
+
+    /**
+     * Proyección de los clientes con los ids dados (una sola query IN).
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE c.id IN :ids")
+    List<ClienteResponseDTO> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Proyección de un cliente por identificación.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE c.identificacion = :identificacion")
+    Optional<ClienteResponseDTO> findResponseByIdentificacion(@Param("identificacion") String identificacion);
+
     /**
      * Busca clientes por estado.
      */
     List<Cliente> findByEstado(String estado);
 
     /**
-     * Busca clientes activos.
+     * Proyección de los clientes con el estado dado.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE c.estado = :estado")
+    List<ClienteResponseDTO> findResponsesByEstado(@Param("estado") String estado);
+
+    /**
+     * Proyección de los clientes activos.
+     */
+    default List<ClienteResponseDTO> findAllActivosResponses() {
+        return findResponsesByEstado(Cliente.ESTADO_ACTIVO);
+    }
+
+    /**
+     * Cuenta clientes por estado canónico.
+     * Solo consulta la tabla cliente, resuelto con el índice idx_cliente_estado.
      */
-    @Query("SELECT c FROM Cliente c WHERE UPPER(c.estado) = 'TRUE'")
-    List<Cliente> findAllActivos();
+    @Query(value = "SELECT COUNT(*) FROM cliente WHERE estado = :estado", nativeQuery = true)
+    long countByEstadoCanonico(@Param("estado") String estado);
+
+    /**
+     * Cuenta clientes activos.
+     */
+    default long countActivos() {
+        return countByEstadoCanonico(Cliente.ESTADO_ACTIVO);
+    }
+
+    /**
+     * Migra estados libres ("true", "TRUE", ...) a los valores canónicos.
+     *
+     * @return cantidad de filas actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE cliente SET estado = CASE WHEN UPPER(TRIM(estado)) = 'TRUE' THEN 'True' ELSE 'False' END "
+            + "WHERE estado IS NOT NULL AND estado NOT IN ('True', 'False')", nativeQuery = true)
+    int normalizarEstados();
 
     /**
      * Busca clientes por nombre (búsqueda parcial, case insensitive).
@@ -40,4 +115,40 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
      * Verifica si existe cliente con la identificación dada.
      */
     boolean existsByIdentificacion(String identificacion);
+
+    /**
+     * Retorna cuáles de las identificaciones dadas ya están registradas.
+     */
+    @Query("SELECT c.identificacion FROM Cliente c WHERE c.identificacion IN :identificaciones")
+    List<String> findExistingIdentificaciones(@Param("identificaciones") Collection<String> identificaciones);
+
+    /**
+     * Página keyset proyectada directamente a ClienteResponseDTO.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE c.id > :id ORDER BY c.id")
+    List<ClienteResponseDTO> findResponsePage(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Página keyset de entidades con las filas bloqueadas (SELECT ... FOR UPDATE)
+     * hasta el fin de la transacción: un UPDATE o DELETE concurrente de esas filas
+     * espera, así lo que publique después queda ordenado detrás.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cliente c WHERE c.id > :id ORDER BY c.id")
+    List<Cliente> findPageForUpdate(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Recorre todas las identificaciones registradas.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT c.identificacion FROM Cliente c")
+    Stream<String> streamAllIdentificaciones();
+
+    /**
+     * Recorre todos los clientes proyectados a ClienteResponseDTO ordenados por id.
+     * Las filas no entran al contexto de persistencia, no hace falta desacoplarlas.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(RESPONSE_PROJECTION + "ORDER BY c.id")
+    Stream<ClienteResponseDTO> streamAllResponsesOrderById();
 }
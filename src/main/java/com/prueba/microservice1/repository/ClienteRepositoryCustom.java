@@ -0,0 +1,33 @@
+package com.prueba.microservice1.repository;
+
+import com.prueba.microservice1.dto.ClienteField;
+import com.prueba.microservice1.dto.ClientePatchDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Operaciones de ClienteRepository implementadas a mano (ver ClienteRepositoryImpl).
+ */
+public interface ClienteRepositoryCustom {
+
+    /**
+     * Aplica los campos presentes del patch en un único UPDATE condicionado a la
+     * versión esperada, y avanza la versión.
+     *
+     * @return filas actualizadas: 0 si el cliente no existe o la versión no coincide
+     */
+    int patch(Long id, ClientePatchDTO patch, long versionEsperada);
+
+    /**
+     * Página keyset que lee solo las columnas de los campos pedidos.
+     * Cada fila es un mapa campo -> valor en el orden de ClienteField.
+     */
+    List<Map<String, Object>> findFieldsPage(Set<ClienteField> fields, Long after, int limit);
+
+    /**
+     * Clientes con el estado dado, leyendo solo las columnas de los campos pedidos.
+     */
+    List<Map<String, Object>> findFieldsByEstado(Set<ClienteField> fields, String estado);
+}
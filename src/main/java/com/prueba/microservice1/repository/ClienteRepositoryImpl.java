@@ -0,0 +1,113 @@
+package com.prueba.microservice1.repository;
+
+import com.prueba.microservice1.dto.ClienteField;
+import com.prueba.microservice1.dto.ClientePatchDTO;
+import com.prueba.microservice1.entity.Cliente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación de ClienteRepositoryCustom con Criteria API y JPQL.
+ */
+class ClienteRepositoryImpl implements ClienteRepositoryCustom {
+
+    /**
+     * Plan de una proyección parcial: campos en orden y el SELECT ya armado.
+     */
+    private record FieldsPlan(List<ClienteField> fields, String select) {
+    }
+
+    private final Map<Set<ClienteField>, FieldsPlan> plans = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patch(Long id, ClientePatchDTO patch, long versionEsperada) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Cliente> update = cb.createCriteriaUpdate(Cliente.class);
+        Root<Cliente> cliente = update.from(Cliente.class);
+
+        if (patch.nombre() != null) update.set(cliente.<String>get("nombre"), patch.nombre());
+        if (patch.genero() != null) update.set(cliente.<String>get("genero"), patch.genero());
+        if (patch.edad() != null) update.set(cliente.<Integer>get("edad"), patch.edad());
+        if (patch.direccion() != null) update.set(cliente.<String>get("direccion"), patch.direccion());
+        if (patch.telefono() != null) update.set(cliente.<String>get("telefono"), patch.telefono());
+        if (patch.contrasena() != null) update.set(cliente.<String>get("contrasena"), patch.contrasena());
+        if (patch.estado() != null) update.set(cliente.<String>get("estado"), patch.estado());
+
+        // Filas creadas antes de existir la columna version se tratan como versión 0
+        Expression<Long> version = cb.coalesce(cliente.<Long>get("version"), 0L);
+        update.set(cliente.<Long>get("version"), cb.sum(version, 1L));
+        update.where(
+                cb.equal(cliente.get("id"), id),
+                cb.equal(version, versionEsperada));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsPage(Set<ClienteField> fields, Long after, int limit) {
+        FieldsPlan plan = plan(fields);
+        List<Tuple> rows = entityManager.createQuery(plan.select() + "WHERE c.id > :after ORDER BY c.id", Tuple.class)
+                .setParameter("after", after)
+                .setMaxResults(limit)
+                .getResultList();
+        return toMaps(plan, rows);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByEstado(Set<ClienteField> fields, String estado) {
+        FieldsPlan plan = plan(fields);
+        List<Tuple> rows = entityManager.createQuery(plan.select() + "WHERE c.estado = :estado", Tuple.class)
+                .setParameter("estado", estado)
+                .getResultList();
+        return toMaps(plan, rows);
+    }
+
+    /**
+     * Plan cacheado por conjunto de campos; hay a lo sumo 2^n combinaciones.
+     */
+    private FieldsPlan plan(Set<ClienteField> fields) {
+        FieldsPlan plan = plans.get(fields);
+        if (plan == null) {
+            EnumSet<ClienteField> key = EnumSet.copyOf(fields);
+            plan = plans.computeIfAbsent(key, ClienteRepositoryImpl::newPlan);
+        }
+        return plan;
+    }
+
+    private static FieldsPlan newPlan(Set<ClienteField> fields) {
+        List<ClienteField> ordered = List.copyOf(fields);
+        String select = ordered.stream()
+                .map(field -> "c." + field.nombre())
+                .collect(Collectors.joining(", ", "SELECT ", " FROM Cliente c "));
+        return new FieldsPlan(ordered, select);
+    }
+
+    private static List<Map<String, Object>> toMaps(FieldsPlan plan, List<Tuple> rows) {
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (int i = 0; i < plan.fields().size(); i++) {
+                map.put(plan.fields().get(i).nombre(), row.get(i));
+            }
+            result.add(map);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,20 @@
+package com.prueba.microservice1.repository;
+
+import com.prueba.microservice1.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio de eventos pendientes del outbox.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lote de eventos pendientes en orden de escritura.
+     */
+    List<OutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+}
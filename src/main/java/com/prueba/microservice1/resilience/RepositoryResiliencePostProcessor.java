@@ -0,0 +1,129 @@
+package com.prueba.microservice1.resilience;
+
+import com.prueba.microservice1.repository.ClienteRepository;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envuelve cada llamada a ClienteRepository en un circuit breaker y un bulkhead
+ * de semáforo, con compartimentos separados para lecturas (dbRead) y escrituras (dbWrite):
+ * una base lenta rechaza rápido en lugar de retener hilos de Tomcat, y las escrituras
+ * trabadas no agotan los permisos de las lecturas.
+ * Los límites se configuran en resilience4j.circuitbreaker/bulkhead.instances.
+ */
+@Component
+public class RepositoryResiliencePostProcessor implements BeanPostProcessor {
+
+    public static final String DB_READ = "dbRead";
+    public static final String DB_WRITE = "dbWrite";
+
+    private static final String[] READ_PREFIXES = {"find", "get", "exists", "count", "stream", "read", "query", "search"};
+
+    private final ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry;
+    private final ObjectProvider<BulkheadRegistry> bulkheadRegistry;
+
+    // Los registros se resuelven al primer uso: un BeanPostProcessor no debe forzar su creación temprana
+    public RepositoryResiliencePostProcessor(ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry,
+                                             ObjectProvider<BulkheadRegistry> bulkheadRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> {
+                        if (ClienteRepository.class.equals(repositoryInformation.getRepositoryInterface())) {
+                            // Primero en la cadena: ve las excepciones ya traducidas y el commit de la propia llamada
+                            proxyFactory.addAdvice(0, new ResilienceInterceptor());
+                        }
+                    }));
+        }
+        return bean;
+    }
+
+    static boolean isRead(Method method) {
+        String name = method.getName();
+        for (String prefix : READ_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class ResilienceInterceptor implements MethodInterceptor {
+
+        private volatile Compartment read;
+        private volatile Compartment write;
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            // Los métodos default delegan en otros métodos del repositorio, que ya pasan por aquí
+            if (method.isDefault() || method.getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            Compartment compartment = isRead(method) ? read() : write();
+            return compartment.execute(invocation);
+        }
+
+        private Compartment read() {
+            Compartment compartment = read;
+            if (compartment == null) {
+                compartment = read = compartment(DB_READ);
+            }
+            return compartment;
+        }
+
+        private Compartment write() {
+            Compartment compartment = write;
+            if (compartment == null) {
+                compartment = write = compartment(DB_WRITE);
+            }
+            return compartment;
+        }
+
+        private Compartment compartment(String name) {
+            return new Compartment(circuitBreakerRegistry.getObject().circuitBreaker(name),
+                    bulkheadRegistry.getObject().bulkhead(name));
+        }
+    }
+
+    private record Compartment(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+
+        /**
+         * Rechaza con BulkheadFullException o CallNotPermittedException (503)
+         * y registra el resultado y la duración de la llamada en el circuit breaker.
+         */
+        Object execute(MethodInvocation invocation) throws Throwable {
+            bulkhead.acquirePermission();
+            try {
+                circuitBreaker.acquirePermission();
+                long start = System.nanoTime();
+                try {
+                    Object result = invocation.proceed();
+                    circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return result;
+                } catch (Throwable t) {
+                    circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, t);
+                    throw t;
+                }
+            } finally {
+                bulkhead.onComplete();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.prueba.microservice1.search;
+
+import com.prueba.microservice1.dto.ClienteResponseDTO;
+import com.prueba.microservice1.repository.ClienteRepository;
+import com.prueba.microservice1.search.TrigramIndex.Hit;
+import com.prueba.microservice1.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Índice de búsqueda de clientes por nombre e identificación.
+ * Se reconstruye al arrancar y se mantiene al día con los cambios después del commit.
+ */
+@Component
+@Slf4j
+public class ClienteSearchIndex {
+
+    private final TrigramIndex<ClienteResponseDTO> index = new TrigramIndex<>();
+    private final ClienteRepository clienteRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double minSimilarity;
+
+    public ClienteSearchIndex(ClienteRepository clienteRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${clientes.search.min-similarity:0.5}") double minSimilarity) {
+        this.clienteRepository = clienteRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.minSimilarity = minSimilarity;
+        Gauge.builder("clientes.search.index.size", index, TrigramIndex::size)
+                .description("Clientes en el índice de búsqueda")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reconstruye el índice recorriendo todos los clientes.
+     * Corre con el servidor ya aceptando requests: un cliente eliminado mientras se
+     * recorre la tabla no se vuelve a indexar desde la fila ya leída.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        index.beginRebuild();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ClienteResponseDTO> clientes = clienteRepository.streamAllResponsesOrderById()) {
+                    clientes.forEach(cliente -> index.putIfAbsent(cliente.id(), cliente,
+                            cliente.nombre(), cliente.identificacion()));
+                }
+            });
+        } finally {
+            index.endRebuild();
+        }
+        log.info("Índice de búsqueda construido: {} clientes en {} ms",
+                index.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Busca clientes por nombre o identificación, con ranking por similitud.
+     */
+    public List<Hit<ClienteResponseDTO>> search(String query, int limit) {
+        return index.search(query, limit, minSimilarity);
+    }
+
+    /**
+     * Indexa el estado actualizado del cliente después del commit.
+     */
+    public void index(ClienteResponseDTO cliente) {
+        TransactionCallbacks.afterCommit(() ->
+                index.put(cliente.id(), cliente, cliente.nombre(), cliente.identificacion()));
+    }
+
+    /**
+     * Quita el cliente del índice después del commit.
+     */
+    public void remove(Long id) {
+        TransactionCallbacks.afterCommit(() -> index.remove(id));
+    }
+}
@@ -0,0 +1,265 @@
+package com.prueba.microservice1.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas en memoria, con ranking por similitud.
+ * Cada palabra se indexa con relleno ("  juan ") para que los trigramas iniciales
+ * resuelvan búsquedas por prefijo; la última palabra de la consulta no lleva el
+ * relleno final, así "jua" encuentra "Juan" (autocompletado).
+ *
+ * @param <T> valor asociado a cada documento
+ */
+public class TrigramIndex<T> {
+
+    /**
+     * Resultado de búsqueda con su puntaje (similitud más bonificación por prefijo).
+     */
+    public record Hit<T>(Long id, T value, double score) {
+    }
+
+    private record Document<T>(Long id, T value, String[] fields, Set<String> trigrams) {
+    }
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final double PREFIX_BOOST = 1.0;
+    private static final double WORD_PREFIX_BOOST = 0.5;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Document<T>> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Ids eliminados mientras dura una reconstrucción; null fuera de ella
+    private Set<Long> removedDuringRebuild;
+
+    /**
+     * Indexa (o reemplaza) el documento con los campos de texto dados.
+     */
+    public void put(Long id, T value, String... fields) {
+        Document<T> document = newDocument(id, value, fields);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            addLocked(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa el documento solo si no existe; usado en la reconstrucción para no
+     * pisar una actualización incremental más reciente ni revivir un documento
+     * eliminado después de leerlo.
+     */
+    public void putIfAbsent(Long id, T value, String... fields) {
+        Document<T> document = newDocument(id, value, fields);
+        lock.writeLock().lock();
+        try {
+            boolean removed = removedDuringRebuild != null && removedDuringRebuild.contains(id);
+            if (!removed && !documents.containsKey(id)) {
+                addLocked(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina el documento del índice.
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (removedDuringRebuild != null) {
+                removedDuringRebuild.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empieza a registrar las eliminaciones, que putIfAbsent no debe deshacer
+     * con filas leídas antes de ellas.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            removedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Termina la reconstrucción y descarta las eliminaciones registradas.
+     */
+    public void endRebuild() {
+        lock.writeLock().lock();
+        try {
+            removedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los documentos que comparten al menos minSimilarity de los trigramas
+     * de la consulta, ordenados por puntaje descendente.
+     */
+    public List<Hit<T>> search(String query, int limit, double minSimilarity) {
+        String normalized = normalize(query);
+        Set<String> queryTrigrams = trigrams(normalized, !query.isEmpty()
+                && !Character.isWhitespace(query.charAt(query.length() - 1)));
+        if (queryTrigrams.isEmpty()) {
+            return List.of();
+        }
+        int required = Math.max(1, (int) Math.ceil(minSimilarity * queryTrigrams.size()));
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> matches = countMatches(queryTrigrams, required);
+            List<Hit<T>> hits = new ArrayList<>();
+            for (Map.Entry<Long, Integer> match : matches.entrySet()) {
+                if (match.getValue() < required) {
+                    continue;
+                }
+                Document<T> document = documents.get(match.getKey());
+                double score = (double) match.getValue() / queryTrigrams.size() + boost(document, normalized);
+                hits.add(new Hit<>(document.id(), document.value(), score));
+            }
+            hits.sort(Comparator.<Hit<T>>comparingDouble(Hit::score).reversed()
+                    .thenComparing(Hit::id));
+            return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cuenta cuántos trigramas de la consulta tiene cada candidato. Un documento con
+     * al menos "required" coincidencias aparece en alguna de las (n - required + 1)
+     * listas más cortas, así solo esas generan candidatos y el resto solo suma.
+     */
+    private Map<Long, Integer> countMatches(Set<String> queryTrigrams, int required) {
+        List<Set<Long>> lists = new ArrayList<>(queryTrigrams.size());
+        for (String trigram : queryTrigrams) {
+            lists.add(postings.getOrDefault(trigram, Set.of()));
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Map<Long, Integer> matches = new HashMap<>();
+        int seedLists = lists.size() - required + 1;
+        for (int i = 0; i < seedLists; i++) {
+            for (Long id : lists.get(i)) {
+                matches.merge(id, 1, Integer::sum);
+            }
+        }
+        for (int i = seedLists; i < lists.size(); i++) {
+            Set<Long> list = lists.get(i);
+            for (Map.Entry<Long, Integer> match : matches.entrySet()) {
+                if (list.contains(match.getKey())) {
+                    match.setValue(match.getValue() + 1);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static double boost(Document<?> document, String normalizedQuery) {
+        double boost = 0.0;
+        for (String field : document.fields()) {
+            if (field.startsWith(normalizedQuery)) {
+                return PREFIX_BOOST;
+            }
+            if (field.contains(" " + normalizedQuery)) {
+                boost = WORD_PREFIX_BOOST;
+            }
+        }
+        return boost;
+    }
+
+    private void addLocked(Document<T> document) {
+        documents.put(document.id(), document);
+        for (String trigram : document.trigrams()) {
+            postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(document.id());
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Document<T> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String trigram : previous.trigrams()) {
+            Set<Long> ids = postings.get(trigram);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    private static <T> Document<T> newDocument(Long id, T value, String... fields) {
+        List<String> normalized = new ArrayList<>(fields.length);
+        Set<String> trigrams = new HashSet<>();
+        for (String field : fields) {
+            if (field != null) {
+                String text = normalize(field);
+                normalized.add(text);
+                trigrams.addAll(trigrams(text, false));
+            }
+        }
+        return new Document<>(id, value, normalized.toArray(String[]::new), trigrams);
+    }
+
+    /**
+     * Minúsculas, sin acentos y con un solo espacio entre palabras.
+     */
+    static String normalize(String text) {
+        String decomposed = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Trigramas de un texto normalizado.
+     *
+     * @param prefix si la última palabra es un prefijo (sin relleno final)
+     */
+    static Set<String> trigrams(String normalized, boolean prefix) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return trigrams;
+        }
+        String[] words = normalized.split(" ");
+        for (int w = 0; w < words.length; w++) {
+            boolean last = w == words.length - 1;
+            String padded = "  " + words[w] + (prefix && last ? "" : " ");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,197 @@
+package com.prueba.microservice1.service;
+
+import com.prueba.microservice1.cache.ClienteCache;
+import com.prueba.microservice1.cache.IdentificacionFilter;
+import com.prueba.microservice1.dto.ClienteBatchResultDTO;
+import com.prueba.microservice1.dto.ClienteBatchResultDTO.Item;
+import com.prueba.microservice1.dto.ClienteDTO;
+import com.prueba.microservice1.dto.ClienteResponseDTO;
+import com.prueba.microservice1.entity.Cliente;
+import com.prueba.microservice1.kafka.ClienteEventProducer;
+import com.prueba.microservice1.kafka.ClienteStatePublisher;
+import com.prueba.microservice1.mapper.ClienteMapper;
+import com.prueba.microservice1.repository.ClienteRepository;
+import com.prueba.microservice1.search.ClienteSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio para creación masiva de Clientes.
+ * Persiste en transacciones por bloques aprovechando el batching JDBC de Hibernate
+ * y publica los eventos de cada bloque en conjunto.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ClienteBatchService {
+
+    private final ClienteRepository clienteRepository;
+    private final ClienteMapper clienteMapper;
+    private final ClienteEventProducer eventProducer;
+    private final ClienteStatePublisher statePublisher;
+    private final ClienteCache clienteCache;
+    private final ClienteSearchIndex clienteSearchIndex;
+    private final IdentificacionFilter identificacionFilter;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${clientes.batch.chunk-size:50}")
+    private int chunkSize;
+
+    @Value("${clientes.batch.max-size:5000}")
+    private int maxSize;
+
+    /**
+     * Crea los clientes del lote y reporta éxito o error por item.
+     * Un bloque que falla en base de datos se reintenta item por item
+     * para aislar los registros inválidos.
+     */
+    @Timed(value = "clientes.service", histogram = true)
+    public ClienteBatchResultDTO createClientes(List<ClienteDTO> clientes) {
+        if (clientes.size() > maxSize) {
+            throw new IllegalArgumentException("El lote excede el máximo permitido de " + maxSize + " clientes");
+        }
+        log.info("Creando lote de {} clientes", clientes.size());
+
+        Item[] resultados = new Item[clientes.size()];
+        Set<String> identificacionesLote = new HashSet<>();
+        for (int from = 0; from < clientes.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, clientes.size());
+            createChunk(clientes, from, to, identificacionesLote, resultados);
+        }
+
+        ClienteBatchResultDTO result = ClienteBatchResultDTO.of(Arrays.asList(resultados));
+        log.info("Lote procesado: {} exitosos, {} fallidos", result.exitosos(), result.fallidos());
+        return result;
+    }
+
+    private void createChunk(List<ClienteDTO> clientes, int from, int to,
+                             Set<String> identificacionesLote, Item[] resultados) {
+        List<Integer> indices = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ClienteDTO dto = clientes.get(i);
+            String error = validate(dto);
+            if (error != null) {
+                resultados[i] = Item.error(i, error);
+            } else if (!identificacionesLote.add(dto.identificacion())) {
+                resultados[i] = Item.error(i, "Identificación duplicada en el lote: " + dto.identificacion());
+            } else {
+                indices.add(i);
+            }
+        }
+        if (indices.isEmpty()) {
+            return;
+        }
+
+        // Un solo query para detectar identificaciones ya registradas, solo con
+        // las que el filtro de identificaciones no descarta
+        List<String> candidatas = indices.stream()
+                .map(i -> clientes.get(i).identificacion())
+                .filter(identificacionFilter::mightExist)
+                .toList();
+        Set<String> existentes = candidatas.isEmpty()
+                ? Set.of()
+                : new HashSet<>(clienteRepository.findExistingIdentificaciones(candidatas));
+        indices.removeIf(i -> {
+            if (existentes.contains(clientes.get(i).identificacion())) {
+                resultados[i] = Item.error(i, "Ya existe un cliente con identificación: "
+                        + clientes.get(i).identificacion());
+                return true;
+            }
+            return false;
+        });
+        if (indices.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<ClienteResponseDTO> creados = persist(indices.stream().map(clientes::get).toList());
+            for (int j = 0; j < indices.size(); j++) {
+                resultados[indices.get(j)] = Item.ok(indices.get(j), creados.get(j));
+            }
+        } catch (DataAccessException | ConstraintViolationException e) {
+            log.warn("Bloque [{}, {}) falló, reintentando item por item: {}", from, to, e.getMessage());
+            for (Integer i : indices) {
+                try {
+                    resultados[i] = Item.ok(i, persist(List.of(clientes.get(i))).get(0));
+                } catch (DataAccessException ex) {
+                    resultados[i] = Item.error(i, ex.getMostSpecificCause().getMessage());
+                } catch (ConstraintViolationException ex) {
+                    resultados[i] = Item.error(i, describe(ex.getConstraintViolations()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserta un bloque en una sola transacción. Con ids de secuencia pooled
+     * Hibernate agrupa los INSERT en batches JDBC.
+     */
+    private List<ClienteResponseDTO> persist(List<ClienteDTO> dtos) {
+        return transactionTemplate.execute(status -> {
+            List<Cliente> entities = dtos.stream()
+                    .map(dto -> {
+                        Cliente cliente = clienteMapper.toEntity(dto);
+                        cliente.setId(null);
+                        return cliente;
+                    })
+                    .toList();
+            List<Cliente> saved = clienteRepository.saveAll(entities);
+            clienteRepository.flush();
+            saved.forEach(cliente -> identificacionFilter.put(cliente.getIdentificacion()));
+
+            eventProducer.sendClienteCreatedEvents(saved);
+            List<ClienteResponseDTO> response = clienteMapper.toResponseDTOList(saved);
+            response.forEach(clienteCache::refresh);
+            response.forEach(clienteSearchIndex::index);
+            statePublisher.publishState(response);
+
+            // Libera el contexto de persistencia entre bloques
+            entityManager.clear();
+            return response;
+        });
+    }
+
+    /**
+     * Valida el DTO y también la entidad que se va a insertar: ClienteDTO no repite
+     * todos los límites de la entidad (p. ej. @Size de dirección y teléfono) y
+     * Hibernate los valida recién en el pre-insert.
+     */
+    private String validate(ClienteDTO dto) {
+        if (dto == null) {
+            return "Item nulo";
+        }
+        Set<? extends ConstraintViolation<?>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            violations = validator.validate(clienteMapper.toEntity(dto));
+        }
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return describe(violations);
+    }
+
+    private static String describe(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,86 @@
+package com.prueba.microservice1.service;
+
+import com.prueba.microservice1.cache.ClienteCache;
+import com.prueba.microservice1.dto.ClienteLookupResultDTO;
+import com.prueba.microservice1.dto.ClienteLookupResultDTO.Item;
+import com.prueba.microservice1.dto.ClienteResponseDTO;
+import com.prueba.microservice1.repository.ClienteRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Servicio para consultar varios clientes por id en una sola llamada.
+ * Resuelve primero desde el cache (positivo y negativo) y el resto con
+ * queries IN por bloques.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ClienteLookupService {
+
+    private final ClienteRepository clienteRepository;
+    private final ClienteCache clienteCache;
+
+    @Value("${clientes.lookup.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${clientes.lookup.max-size:1000}")
+    private int maxSize;
+
+    /**
+     * Obtiene los clientes de los ids dados, en el orden solicitado.
+     */
+    @Timed(value = "clientes.service", histogram = true)
+    public ClienteLookupResultDTO lookupClientes(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Se requiere al menos un id");
+        }
+        if (ids.size() > maxSize) {
+            throw new IllegalArgumentException("La consulta excede el máximo permitido de " + maxSize + " ids");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("La lista de ids no puede contener valores nulos");
+        }
+
+        Map<Long, ClienteResponseDTO> encontrados = new HashMap<>();
+        List<Long> pendientes = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            clienteCache.peekById(id).ifPresentOrElse(
+                    cliente -> encontrados.put(id, cliente),
+                    () -> {
+                        if (!clienteCache.isKnownMissing(id)) {
+                            pendientes.add(id);
+                        }
+                    });
+        }
+
+        for (int from = 0; from < pendientes.size(); from += chunkSize) {
+            List<Long> chunk = pendientes.subList(from, Math.min(from + chunkSize, pendientes.size()));
+            List<ClienteResponseDTO> cargados = clienteRepository.findResponsesByIdIn(chunk);
+            cargados.forEach(cliente -> encontrados.put(cliente.id(), cliente));
+            clienteCache.putIfAbsent(cargados);
+            Set<Long> ausentes = new LinkedHashSet<>(chunk);
+            ausentes.removeAll(encontrados.keySet());
+            ausentes.forEach(clienteCache::markMissing);
+        }
+        log.debug("Consulta de {} ids: {} desde cache, {} desde base de datos",
+                ids.size(), ids.size() - pendientes.size(), pendientes.size());
+
+        List<Item> resultados = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ClienteResponseDTO cliente = encontrados.get(id);
+            resultados.add(cliente != null ? Item.found(cliente) : Item.missing(id));
+        }
+        return ClienteLookupResultDTO.of(resultados);
+    }
+}
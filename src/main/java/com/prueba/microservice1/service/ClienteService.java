@@ -1,21 +1,47 @@
 package com.prueba.microservice1.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.prueba.microservice1.cache.ClienteCache;
+import com.prueba.microservice1.cache.IdentificacionFilter;
+import com.prueba.microservice1.cache.ClienteJsonCache;
+import com.prueba.microservice1.cache.ClienteJsonCache.SerializedCliente;
 import com.prueba.microservice1.dto.ClienteDTO;
+import com.prueba.microservice1.dto.ClienteField;
+import com.prueba.microservice1.dto.ClientePageDTO;
+import com.prueba.microservice1.dto.ClientePatchDTO;
 import com.prueba.microservice1.dto.ClienteResponseDTO;
+import com.prueba.microservice1.dto.ClienteSearchHitDTO;
 import com.prueba.microservice1.entity.Cliente;
+import com.prueba.microservice1.exception.ClienteDuplicadoException;
 import com.prueba.microservice1.exception.ClienteNotFoundException;
+import com.prueba.microservice1.exception.ClienteVersionConflictException;
 import com.prueba.microservice1.kafka.ClienteEventProducer;
+import com.prueba.microservice1.kafka.ClienteStatePublisher;
 import com.prueba.microservice1.mapper.ClienteMapper;
 import com.prueba.microservice1.repository.ClienteRepository;
+import com.prueba.microservice1.search.ClienteSearchIndex;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Servicio para gestión de Clientes.
@@ -28,105 +54,298 @@ public class ClienteService {
     private final ClienteRepository clienteRepository;
     private final ClienteMapper clienteMapper;
     private final ClienteEventProducer eventProducer;
+    private final ClienteStatePublisher statePublisher;
+    private final ClienteCache clienteCache;
+    private final ClienteJsonCache clienteJsonCache;
+    private final ClienteSearchIndex clienteSearchIndex;
+    private final IdentificacionFilter identificacionFilter;
+    private final ObjectMapper objectMapper;
 
-    private static final Predicate<Cliente> IS_ACTIVE = cliente ->
-            cliente.getEstado() != null && cliente.getEstado().equalsIgnoreCase("True");
+    private static final int EXPORT_FLUSH_INTERVAL = 256;
 
     private final Consumer<Cliente> logClienteOperation = cliente ->
             log.info("Operación realizada en cliente: {} (ID: {})", cliente.getNombre(), cliente.getId());
 
+    @Value("${clientes.pagination.default-limit:50}")
+    private int defaultPageLimit;
+
+    @Value("${clientes.pagination.max-limit:500}")
+    private int maxPageLimit;
+
+    @Value("${clientes.search.default-limit:10}")
+    private int defaultSearchLimit;
+
+    @Value("${clientes.search.max-limit:50}")
+    private int maxSearchLimit;
+
+    /**
+     * Obtiene una página de clientes usando paginación por cursor (keyset).
+     * Se lee un registro extra para saber si existe una página siguiente,
+     * así la memoria por request queda acotada por el límite.
+     */
+    @Timed(value = "clientes.service", histogram = true)
+    @Transactional(readOnly = true)
+    public ClientePageDTO<ClienteResponseDTO> getClientesPage(Long after, Integer limit) {
+        int pageLimit = resolvePageLimit(limit);
+        long cursor = after != null ? after : 0L;
+
+        List<ClienteResponseDTO> clientes = clienteRepository
+                .findResponsePage(cursor, PageRequest.ofSize(pageLimit + 1));
+        return toPage(clientes, pageLimit, ClienteResponseDTO::id);
+    }
+
     /**
-     * Obtiene todos los clientes.
+     * Página de clientes con solo los campos pedidos (?fields=).
+     * La query lee únicamente esas columnas.
      */
+    @Timed(value = "clientes.service", histogram = true)
     @Transactional(readOnly = true)
-    public List<ClienteResponseDTO> getAllClientes() {
-        return clienteRepository.findAll()
+    public ClientePageDTO<Map<String, Object>> getClientesPage(Long after, Integer limit, Set<ClienteField> fields) {
+        int pageLimit = resolvePageLimit(limit);
+        long cursor = after != null ? after : 0L;
+
+        List<Map<String, Object>> clientes = clienteRepository.findFieldsPage(fields, cursor, pageLimit + 1);
+        return toPage(clientes, pageLimit, cliente -> (Long) cliente.get(ClienteField.ID.nombre()));
+    }
+
+    private static <T> ClientePageDTO<T> toPage(List<T> clientes, int pageLimit, Function<T, Long> idOf) {
+        if (clientes.size() <= pageLimit) {
+            return new ClientePageDTO<>(clientes, pageLimit, null);
+        }
+        List<T> page = clientes.subList(0, pageLimit);
+        return new ClientePageDTO<>(page, pageLimit, idOf.apply(page.get(pageLimit - 1)));
+    }
+
+    /**
+     * Exporta todos los clientes como NDJSON (un JSON por línea) directamente
+     * sobre el OutputStream. Se recorre una proyección a DTO, así ninguna fila
+     * queda en el contexto de persistencia y el heap se mantiene estable.
+     *
+     * @return cantidad de clientes exportados
+     */
+    @Timed(value = "clientes.service", histogram = true)
+    @Transactional(readOnly = true)
+    public long exportClientes(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ClienteResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        long count = 0;
+
+        try (Stream<ClienteResponseDTO> clientes = clienteRepository.streamAllResponsesOrderById();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+            Iterator<ClienteResponseDTO> iterator = clientes.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+
+                // El primer registro sale de inmediato; luego se envía por bloques
+                if (++count % EXPORT_FLUSH_INTERVAL == 1) {
+                    generator.flush();
+                }
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Busca clientes por nombre o identificación en el índice de trigramas.
+     * No consulta la base de datos; los resultados vienen ordenados por relevancia.
+     */
+    @Timed(value = "clientes.service", histogram = true)
+    public List<ClienteSearchHitDTO> searchClientes(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("El parámetro q es obligatorio");
+        }
+        return clienteSearchIndex.search(query, resolveLimit(limit, defaultSearchLimit, maxSearchLimit))
                 .stream()
-                .map(clienteMapper::toResponseDTO)
+                .map(hit -> new ClienteSearchHitDTO(hit.value(), hit.score()))
                 .toList();
     }
 
+    private int resolvePageLimit(Integer limit) {
+        return resolveLimit(limit, defaultPageLimit, maxPageLimit);
+    }
+
+    private static int resolveLimit(Integer limit, int defaultLimit, int maxLimit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("El parámetro limit debe ser mayor a 0");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
     /**
      * Obtiene todos los clientes activos.
      */
+    @Timed(value = "clientes.service", histogram = true)
     @Transactional(readOnly = true)
     public List<ClienteResponseDTO> getClientesActivos() {
-        return clienteRepository.findAll()
-                .stream()
-                .filter(IS_ACTIVE)
-                .map(clienteMapper::toResponseDTO)
-                .toList();
+        return clienteRepository.findAllActivosResponses();
     }
 
     /**
-     * Obtiene cliente por ID.
+     * Obtiene los clientes activos con solo los campos pedidos (?fields=).
      */
+    @Timed(value = "clientes.service", histogram = true)
     @Transactional(readOnly = true)
+    public List<Map<String, Object>> getClientesActivos(Set<ClienteField> fields) {
+        return clienteRepository.findFieldsByEstado(fields, Cliente.ESTADO_ACTIVO);
+    }
+
+    /**
+     * Obtiene cliente por ID.
+     * Sin transacción propia: un hit de cache (positivo o negativo) no toca la base de datos.
+     */
+    @Timed(value = "clientes.service", histogram = true)
     public ClienteResponseDTO getClienteById(Long id) {
-        return clienteRepository.findById(id)
-                .map(clienteMapper::toResponseDTO)
-                .orElseThrow(() -> new ClienteNotFoundException("Cliente no encontrado con id: " + id));
+        return clienteCache.getById(id, clienteRepository::findResponseById)
+                .orElseThrow(() -> new ClienteNotFoundException(id));
     }
 
     /**
-     * Obtiene cliente entity por ID (uso interno).
+     * Obtiene la entidad cliente ya serializada a JSON junto con su ETag (uso interno).
      */
-    @Transactional(readOnly = true)
-    public Cliente getClienteEntityById(Long id) {
-        return clienteRepository.findById(id)
-                .orElseThrow(() -> new ClienteNotFoundException("Cliente no encontrado con id: " + id));
+    @Timed(value = "clientes.service", histogram = true)
+    public SerializedCliente getClienteEntityJson(Long id) {
+        if (clienteCache.isKnownMissing(id)) {
+            throw new ClienteNotFoundException(id);
+        }
+        return clienteJsonCache.get(id, clienteRepository::findById)
+                .orElseThrow(() -> {
+                    clienteCache.markMissing(id);
+                    return new ClienteNotFoundException(id);
+                });
     }
 
     /**
      * Busca cliente por identificación.
+     * Un negativo del filtro de identificaciones se responde sin consultar la base de datos.
      */
-    @Transactional(readOnly = true)
+    @Timed(value = "clientes.service", histogram = true)
     public Optional<ClienteResponseDTO> findByIdentificacion(String identificacion) {
-        return clienteRepository.findByIdentificacion(identificacion)
-                .map(clienteMapper::toResponseDTO);
+        if (!identificacionFilter.mightExist(identificacion)) {
+            return Optional.empty();
+        }
+        return clienteCache.getByIdentificacion(identificacion, clienteRepository::findResponseByIdentificacion);
     }
 
     /**
      * Crea un nuevo cliente.
+     * Rechaza identificaciones duplicadas antes del insert; solo consulta la base
+     * de datos si el filtro de identificaciones no descarta la identificación.
      * Publica evento a Kafka después de crear.
      */
+    @Timed(value = "clientes.service", histogram = true)
     @Transactional
     public ClienteResponseDTO createCliente(ClienteDTO clienteDTO) {
         log.info("Creando nuevo cliente: {}", clienteDTO.nombre());
 
+        if (identificacionFilter.mightExist(clienteDTO.identificacion())
+                && clienteRepository.existsByIdentificacion(clienteDTO.identificacion())) {
+            throw new ClienteDuplicadoException(clienteDTO.identificacion());
+        }
+
         Cliente cliente = clienteMapper.toEntity(clienteDTO);
+        // El id lo asigna la secuencia; con @Version un id recibido haría un merge
+        cliente.setId(null);
         Cliente savedCliente = clienteRepository.save(cliente);
+        identificacionFilter.put(savedCliente.getIdentificacion());
 
         // Publicar evento a Kafka
         eventProducer.sendClienteCreatedEvent(savedCliente);
 
         logClienteOperation.accept(savedCliente);
-        return clienteMapper.toResponseDTO(savedCliente);
+        ClienteResponseDTO response = clienteMapper.toResponseDTO(savedCliente);
+        clienteCache.refresh(response);
+        clienteSearchIndex.index(response);
+        statePublisher.publishState(response);
+        return response;
     }
 
     /**
      * Actualiza un cliente existente.
      * Publica evento a Kafka después de actualizar.
      */
+    @Timed(value = "clientes.service", histogram = true)
     @Transactional
     public ClienteResponseDTO updateCliente(Long id, ClienteDTO clienteDTO) {
         log.info("Actualizando cliente con id: {}", id);
 
         return clienteRepository.findById(id)
                 .map(cliente -> clienteMapper.updateEntityFromDTO(cliente, clienteDTO))
-                .map(clienteRepository::save)
+                // flush para que la respuesta lleve la versión ya incrementada
+                .map(clienteRepository::saveAndFlush)
                 .map(cliente -> {
                     eventProducer.sendClienteUpdatedEvent(cliente);
                     logClienteOperation.accept(cliente);
-                    return clienteMapper.toResponseDTO(cliente);
+                    ClienteResponseDTO response = clienteMapper.toResponseDTO(cliente);
+                    clienteCache.refresh(response);
+                    clienteJsonCache.evict(id);
+                    clienteSearchIndex.index(response);
+                    statePublisher.publishState(response);
+                    return response;
                 })
-                .orElseThrow(() -> new ClienteNotFoundException("Cliente no encontrado con id: " + id));
+                .orElseThrow(() -> new ClienteNotFoundException(id));
+    }
+
+    /**
+     * Actualiza parcialmente un cliente con un único UPDATE condicionado a la versión.
+     * La versión esperada sale de If-Match (conflicto = 412) o del body (conflicto = 409).
+     * Publica un evento PATCHED solo con los campos modificados.
+     */
+    @Timed(value = "clientes.service", histogram = true)
+    @Transactional
+    public ClienteResponseDTO patchCliente(Long id, ClientePatchDTO patch, Long ifMatchVersion) {
+        boolean precondicion = ifMatchVersion != null;
+        Long version = precondicion ? ifMatchVersion : patch.version();
+        if (version == null) {
+            throw new IllegalArgumentException("Se requiere la versión del cliente (If-Match o campo version)");
+        }
+        if (patch.isEmpty()) {
+            throw new IllegalArgumentException("El patch no contiene campos a modificar");
+        }
+        log.info("Actualizando parcialmente cliente con id: {} (versión {})", id, version);
+
+        if (clienteRepository.patch(id, patch, version) == 0) {
+            if (!clienteRepository.existsById(id)) {
+                throw new ClienteNotFoundException(id);
+            }
+            throw new ClienteVersionConflictException(id, version, precondicion);
+        }
+
+        // Si el cache tiene justo la versión modificada, el nuevo estado se deriva sin releer
+        ClienteResponseDTO response = clienteCache.peekById(id)
+                .filter(cached -> versionOf(cached) == version)
+                .map(cached -> cached.withPatch(patch))
+                .orElseGet(() -> clienteRepository.findResponseById(id)
+                        .orElseThrow(() -> new ClienteNotFoundException(id)));
+
+        Map<String, String> cambios = new LinkedHashMap<>(patch.cambios());
+        cambios.put("version", String.valueOf(response.version()));
+        eventProducer.sendClientePatchedEvent(id, cambios);
+
+        clienteCache.refresh(response);
+        clienteJsonCache.evict(id);
+        clienteSearchIndex.index(response);
+        statePublisher.publishState(response);
+        return response;
+    }
+
+    private static long versionOf(ClienteResponseDTO cliente) {
+        return cliente.version() != null ? cliente.version() : 0L;
     }
 
     /**
      * Elimina un cliente.
      * Publica evento a Kafka después de eliminar.
      */
+    @Timed(value = "clientes.service", histogram = true)
     @Transactional
     public void deleteCliente(Long id) {
         log.info("Eliminando cliente con id: {}", id);
@@ -135,11 +354,18 @@ public class ClienteService {
                 .ifPresentOrElse(
                         cliente -> {
                             clienteRepository.deleteById(id);
+                            // El DELETE toma el lock de la fila antes de escribir el tombstone:
+                            // un estado concurrente en el outbox queda siempre antes que él
+                            clienteRepository.flush();
+                            clienteCache.evict(id, cliente.getIdentificacion());
+                            clienteJsonCache.evict(id);
+                            clienteSearchIndex.remove(id);
+                            statePublisher.publishTombstone(id);
                             eventProducer.sendClienteDeletedEvent(id, cliente.getNombre());
                             log.info("Cliente eliminado: {}", cliente.getNombre());
                         },
                         () -> {
-                            throw new ClienteNotFoundException("Cliente no encontrado con id: " + id);
+                            throw new ClienteNotFoundException(id);
                         }
                 );
     }
@@ -147,6 +373,7 @@ public class ClienteService {
     /**
      * Verifica si existe un cliente con el ID dado.
      */
+    @Timed(value = "clientes.service", histogram = true)
     public boolean existsById(Long id) {
         return clienteRepository.existsById(id);
     }
@@ -154,11 +381,9 @@ public class ClienteService {
     /**
      * Cuenta el total de clientes activos.
      */
+    @Timed(value = "clientes.service", histogram = true)
     @Transactional(readOnly = true)
     public long countClientesActivos() {
-        return clienteRepository.findAll()
-                .stream()
-                .filter(IS_ACTIVE)
-                .count();
+        return clienteRepository.countActivos();
     }
 }
@@ -0,0 +1,150 @@
+package com.prueba.microservice1.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tiempos por fase del request en curso (ligado al hilo).
+ * Si el request no está siendo medido, phase() retorna un scope vacío sin costo.
+ */
+public final class RequestTiming {
+
+    /**
+     * Fases medidas. DB incluye la query y la hidratación de entidades.
+     */
+    public enum Phase {
+        DB("db"), MAPPING("map"), KAFKA("kafka"), SERIALIZATION("ser");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+    private static final Scope NOOP = new Scope(null, null, 0L);
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startedAt = System.nanoTime();
+    private final long[] phaseNanos = new long[PHASES.length];
+    private long handlerCompletedAt;
+
+    RequestTiming() {
+    }
+
+    static RequestTiming start() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Abre una fase; el tiempo se acumula al cerrar el scope.
+     */
+    public static Scope phase(Phase phase) {
+        RequestTiming timing = CURRENT.get();
+        return timing == null ? NOOP : new Scope(timing, phase, System.nanoTime());
+    }
+
+    /**
+     * Acumula una duración ya medida en la fase del request en curso.
+     */
+    public static void record(Phase phase, long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.phaseNanos[phase.ordinal()] += nanos;
+        }
+    }
+
+    /**
+     * Marca el fin del handler; desde aquí se mide la serialización de la respuesta.
+     */
+    void markHandlerCompleted() {
+        if (handlerCompletedAt == 0L) {
+            handlerCompletedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Cierra la medición asignando a SERIALIZATION el tiempo posterior al handler.
+     *
+     * @return duración total del request en nanos
+     */
+    long finish() {
+        long now = System.nanoTime();
+        if (handlerCompletedAt != 0L) {
+            phaseNanos[Phase.SERIALIZATION.ordinal()] += now - handlerCompletedAt;
+        }
+        return now - startedAt;
+    }
+
+    /**
+     * Valor del header Server-Timing con las fases medidas hasta ahora.
+     */
+    String toHeaderValue() {
+        StringBuilder header = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos > 0) {
+                appendMetric(header, phase.metricName(), nanos);
+            }
+        }
+        appendMetric(header, "app", System.nanoTime() - startedAt);
+        return header.toString();
+    }
+
+    Map<String, Double> phasesMillis() {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        for (Phase phase : PHASES) {
+            phases.put(phase.metricName(), toMillis(phaseNanos[phase.ordinal()]));
+        }
+        return phases;
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", toMillis(nanos)));
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Scope de una fase abierta.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final RequestTiming timing;
+        private final Phase phase;
+        private final long startedAt;
+
+        private Scope(RequestTiming timing, Phase phase, long startedAt) {
+            this.timing = timing;
+            this.phase = phase;
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void close() {
+            if (timing != null) {
+                timing.phaseNanos[phase.ordinal()] += System.nanoTime() - startedAt;
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.prueba.microservice1.timing;
+
+import com.prueba.microservice1.timing.SlowRequestLog.SlowRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Mide las fases de cada request a /clientes. El header Server-Timing lo agrega
+ * ServerTimingAdvice antes de escribir el body; al terminar, los requests
+ * lentos se guardan en SlowRequestLog con la fase de serialización incluida.
+ */
+@Component
+@ConditionalOnProperty(name = "server-timing.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final SlowRequestLog slowRequestLog;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/clientes");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long totalNanos = timing.finish();
+            RequestTiming.clear();
+            if (slowRequestLog.isSlow(totalNanos)) {
+                slowRequestLog.add(new SlowRequest(
+                        Instant.now(),
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        response.getStatus(),
+                        RequestTiming.toMillis(totalNanos),
+                        timing.phasesMillis()));
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.prueba.microservice1.timing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ring buffer acotado con los requests recientes que superaron el umbral de lentitud.
+ */
+@Component
+public class SlowRequestLog {
+
+    /**
+     * Request lento con su desglose por fase (milisegundos).
+     */
+    public record SlowRequest(
+            Instant timestamp,
+            String method,
+            String path,
+            int status,
+            double totalMillis,
+            Map<String, Double> phases
+    ) {
+    }
+
+    private final SlowRequest[] buffer;
+    private final long thresholdNanos;
+    private int next;
+    private long total;
+
+    public SlowRequestLog(@Value("${server-timing.slow-threshold:200ms}") Duration threshold,
+                          @Value("${server-timing.slow-buffer-size:100}") int capacity) {
+        this.buffer = new SlowRequest[capacity];
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    boolean isSlow(long totalNanos) {
+        return totalNanos >= thresholdNanos;
+    }
+
+    synchronized void add(SlowRequest request) {
+        buffer[next] = request;
+        next = (next + 1) % buffer.length;
+        total++;
+    }
+
+    /**
+     * Requests lentos retenidos, del más lento al más rápido.
+     */
+    public synchronized List<SlowRequest> snapshot() {
+        List<SlowRequest> requests = new ArrayList<>(buffer.length);
+        for (SlowRequest request : buffer) {
+            if (request != null) {
+                requests.add(request);
+            }
+        }
+        requests.sort(Comparator.comparingDouble(SlowRequest::totalMillis).reversed());
+        return requests;
+    }
+
+    /**
+     * Total de requests lentos registrados desde el arranque.
+     */
+    public synchronized long total() {
+        return total;
+    }
+}
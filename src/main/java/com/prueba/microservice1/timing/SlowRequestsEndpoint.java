@@ -0,0 +1,31 @@
+package com.prueba.microservice1.timing;
+
+import com.prueba.microservice1.timing.SlowRequestLog.SlowRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoint de actuator con los requests lentos recientes y su desglose por fase.
+ * GET /actuator/slowrequests
+ */
+@Component
+@Endpoint(id = "slowrequests")
+@RequiredArgsConstructor
+public class SlowRequestsEndpoint {
+
+    private final SlowRequestLog slowRequestLog;
+
+    @ReadOperation
+    public Map<String, Object> slowRequests() {
+        List<SlowRequest> requests = slowRequestLog.snapshot();
+        return Map.of(
+                "total", slowRequestLog.total(),
+                "requests", requests
+        );
+    }
+}
@@ -7,13 +7,18 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.file.Path;
+
 import com.prueba.microservice1.entity.Cliente;
 import com.prueba.microservice1.repository.ClienteRepository;
 
@@ -21,6 +26,14 @@ import com.prueba.microservice1.repository.ClienteRepository;
 @AutoConfigureMockMvc
 public class ClienteControllerTest {
 
+    @TempDir
+    static Path journalDir;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("kafka.journal.dir", journalDir::toString);
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -30,18 +43,22 @@ public class ClienteControllerTest {
     @Test
     public void testCreateCliente() throws Exception {
         Cliente cliente = new Cliente();
+        cliente.setId(1L);
         cliente.setNombre("Pedro");
-        cliente.setContraseña("1234");
+        cliente.setIdentificacion("0102030405");
+        cliente.setContrasena("1234");
         cliente.setEstado("True");
 
         when(clienteRepository.save(any(Cliente.class))).thenReturn(cliente);
 
         mockMvc.perform(post("/clientes")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content("{\"nombre\":\"Pedro\",\"contraseña\":\"1234\",\"estado\":\"True\"}"))
-                .andExpect(status().isOk())
+                        .content("{\"nombre\":\"Pedro\",\"identificacion\":\"0102030405\","
+                                + "\"contrasena\":\"1234\",\"estado\":\"True\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.nombre", is("Pedro")))
-                .andExpect(jsonPath("$.contraseña", is("1234")))
+                .andExpect(jsonPath("$.contrasena").doesNotExist())
                 .andExpect(jsonPath("$.estado", is("True")));
     }
 }
\ No newline at end of file
@@ -1,11 +1,25 @@
 package com.prueba.microservice1;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
 
 @SpringBootTest
 class Microservice1ApplicationTests {
 
+    @TempDir
+    static Path journalDir;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        // Journal propio de la clase: no comparte eventos con otras ejecuciones
+        registry.add("kafka.journal.dir", journalDir::toString);
+    }
+
     @Test
     void contextLoads() {
     }
@@ -0,0 +1,75 @@
+package com.prueba.microservice1.cache;
+
+import com.prueba.microservice1.dto.ClienteResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario del cache de clientes (sin transacción activa las escrituras son inmediatas).
+ */
+class ClienteCacheTest {
+
+    private final ClienteCache cache = new ClienteCache(new SimpleMeterRegistry(), 100,
+            Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("Un id inexistente no debe volver a consultar el loader")
+    void debeCachearIdsInexistentes() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        assertTrue(cache.getById(5L, id -> {
+            cargas.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+        assertTrue(cache.getById(5L, id -> {
+            cargas.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+
+        assertEquals(1, cargas.get());
+        assertTrue(cache.isKnownMissing(5L));
+    }
+
+    @Test
+    @DisplayName("Crear el cliente debe invalidar el cache negativo")
+    void refreshDebeInvalidarCacheNegativo() {
+        cache.markMissing(7L);
+        ClienteResponseDTO cliente = new ClienteResponseDTO(7L, "Pedro", null, 30, "111", null, null, "True", 0L);
+
+        cache.refresh(cliente);
+
+        assertFalse(cache.isKnownMissing(7L));
+        assertEquals(Optional.of(cliente), cache.getById(7L, id -> Optional.empty()));
+    }
+
+    @Test
+    @DisplayName("Eliminar el cliente debe dejarlo en el cache negativo")
+    void evictDebeMarcarInexistente() {
+        cache.refresh(new ClienteResponseDTO(9L, "Ana", null, 20, "222", null, null, "True", 0L));
+
+        cache.evict(9L, "222");
+
+        assertTrue(cache.isKnownMissing(9L));
+        assertTrue(cache.getById(9L, id -> fail("no debe consultar el loader")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Un cliente leído antes de su eliminación no debe volver al cache")
+    void putIfAbsentNoDebeRestaurarEliminados() {
+        ClienteResponseDTO leido = new ClienteResponseDTO(9L, "Ana", null, 30, "222", null, null, "True", 0L);
+
+        cache.evict(9L, "222");
+        cache.putIfAbsent(List.of(leido));
+
+        assertTrue(cache.peekById(9L).isEmpty());
+        assertTrue(cache.getById(9L, id -> Optional.of(leido)).isEmpty());
+    }
+}
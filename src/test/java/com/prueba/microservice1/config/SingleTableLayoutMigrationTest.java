@@ -0,0 +1,69 @@
+package com.prueba.microservice1.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de la migración del layout JOINED al layout SINGLE_TABLE sobre H2.
+ */
+class SingleTableLayoutMigrationTest {
+
+    private final EmbeddedDatabase dataSource = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debe conservar la versión de los clientes al migrar")
+    void debeConservarVersion() {
+        crearLayoutJoined(true);
+        jdbc.update("INSERT INTO persona (id, nombre, edad, identificacion, version) VALUES (1, 'Ana', 30, '0101', 3)");
+        jdbc.update("INSERT INTO cliente (id, contrasena, estado) VALUES (1, 'secreta', 'True')");
+        jdbc.update("INSERT INTO persona (id, nombre, edad, identificacion, version) VALUES (2, 'Luis', 40, '0202', 1)");
+
+        assertTrue(new SingleTableLayoutMigration(dataSource).initializeDatabase());
+
+        Map<String, Object> cliente = jdbc.queryForMap("SELECT dtype, nombre, version FROM cliente WHERE id = 1");
+        assertEquals("Cliente", cliente.get("DTYPE"));
+        assertEquals("Ana", cliente.get("NOMBRE"));
+        assertEquals(3L, ((Number) cliente.get("VERSION")).longValue());
+        assertEquals(1L, jdbc.queryForObject("SELECT version FROM cliente WHERE id = 2", Long.class));
+        assertEquals(0, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'PERSONA'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Un layout JOINED sin columna version debe migrar con versión 0")
+    void debeInicializarVersionSinColumna() {
+        crearLayoutJoined(false);
+        jdbc.update("INSERT INTO persona (id, nombre, edad, identificacion) VALUES (1, 'Ana', 30, '0101')");
+        jdbc.update("INSERT INTO cliente (id, contrasena, estado) VALUES (1, 'secreta', 'True')");
+
+        assertTrue(new SingleTableLayoutMigration(dataSource).initializeDatabase());
+
+        assertEquals(0L, jdbc.queryForObject("SELECT version FROM cliente WHERE id = 1", Long.class));
+    }
+
+    private void crearLayoutJoined(boolean conVersion) {
+        jdbc.execute("CREATE TABLE persona (id BIGINT PRIMARY KEY, nombre VARCHAR(100), genero VARCHAR(10), "
+                + "edad INTEGER NOT NULL, identificacion VARCHAR(255) UNIQUE, direccion VARCHAR(200), "
+                + "telefono VARCHAR(20)" + (conVersion ? ", version BIGINT" : "") + ")");
+        jdbc.execute("CREATE TABLE cliente (id BIGINT PRIMARY KEY, contrasena VARCHAR(255), estado VARCHAR(255), "
+                + "CONSTRAINT fk_cliente_persona FOREIGN KEY (id) REFERENCES persona (id))");
+    }
+}
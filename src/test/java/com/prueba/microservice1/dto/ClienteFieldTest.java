@@ -0,0 +1,51 @@
+package com.prueba.microservice1.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario de la selección de campos (?fields=).
+ */
+class ClienteFieldTest {
+
+    @Test
+    @DisplayName("Debe incluir siempre el id y respetar el orden de los campos")
+    void debeIncluirIdSiempre() {
+        Set<ClienteField> fields = ClienteField.parse("estado, nombre");
+
+        assertEquals(EnumSet.of(ClienteField.ID, ClienteField.NOMBRE, ClienteField.ESTADO), fields);
+    }
+
+    @Test
+    @DisplayName("Sin parámetro fields se devuelven todos los campos")
+    void sinFieldsDebeRetornarNull() {
+        assertNull(ClienteField.parse(null));
+        assertNull(ClienteField.parse(" "));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar campos desconocidos")
+    void debeRechazarCamposDesconocidos() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> ClienteField.parse("nombre,contrasena"));
+        assertTrue(ex.getMessage().contains("contrasena"));
+    }
+
+    @Test
+    @DisplayName("Debe extraer solo los campos pedidos de un DTO")
+    void debeSeleccionarCampos() {
+        ClienteResponseDTO cliente = new ClienteResponseDTO(1L, "Pedro", "M", 30, "111", "Quito", "0999", "True", 2L);
+
+        Map<String, Object> seleccion = ClienteField.select(cliente, ClienteField.parse("nombre,estado"));
+
+        assertEquals(List.of("id", "nombre", "estado"), List.copyOf(seleccion.keySet()));
+        assertEquals("Pedro", seleccion.get("nombre"));
+    }
+}
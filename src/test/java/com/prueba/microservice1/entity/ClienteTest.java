@@ -53,11 +53,11 @@ class ClienteTest {
     @DisplayName("Debe establecer y obtener atributos propios de Cliente")
     void debeEstablecerAtributosDeCliente() {
         // Datos de prueba
-        cliente.setContraseña("1234");
+        cliente.setContrasena("1234");
         cliente.setEstado("True");
 
         // Verificaciones
-        assertEquals("1234", cliente.getContraseña());
+        assertEquals("1234", cliente.getContrasena());
         assertEquals("True", cliente.getEstado());
     }
 
@@ -71,7 +71,7 @@ class ClienteTest {
         cliente.setIdentificacion("1234567891");
         cliente.setDireccion("Amazonas y NNUU");
         cliente.setTelefono("097548965");
-        cliente.setContraseña("5678");
+        cliente.setContrasena("5678");
         cliente.setEstado("True");
 
         // Verificar que todos los campos estan configurados
@@ -80,7 +80,7 @@ class ClienteTest {
         assertNotNull(cliente.getIdentificacion());
         assertNotNull(cliente.getDireccion());
         assertNotNull(cliente.getTelefono());
-        assertNotNull(cliente.getContraseña());
+        assertNotNull(cliente.getContrasena());
         assertNotNull(cliente.getEstado());
     }
 
@@ -91,7 +91,7 @@ class ClienteTest {
 
         assertNull(nuevoCliente.getId());
         assertNull(nuevoCliente.getNombre());
-        assertNull(nuevoCliente.getContraseña());
+        assertNull(nuevoCliente.getContrasena());
         assertNull(nuevoCliente.getEstado());
     }
 }
@@ -0,0 +1,72 @@
+package com.prueba.microservice1.feed;
+
+import com.prueba.microservice1.dto.ClienteChangesDTO;
+import com.prueba.microservice1.dto.ClienteChangesDTO.Change;
+import com.prueba.microservice1.kafka.ClienteEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario del ring buffer del change feed.
+ */
+class ChangeFeedTest {
+
+    private final ChangeFeed feed = new ChangeFeed(4, 100L);
+
+    @Test
+    @DisplayName("Debe retornar solo los cambios posteriores a since, en orden")
+    void debeRetornarCambiosPosteriores() {
+        append(3);
+
+        ClienteChangesDTO changes = feed.read(1, null, 10);
+
+        assertFalse(changes.resync());
+        assertEquals(List.of(2L, 3L), changes.cambios().stream().map(Change::secuencia).toList());
+        assertEquals(3L, changes.ultimaSecuencia());
+    }
+
+    @Test
+    @DisplayName("Con limit la última secuencia es la del último cambio entregado")
+    void debeRespetarLimite() {
+        append(3);
+
+        ClienteChangesDTO changes = feed.read(0, 100L, 2);
+
+        assertEquals(2, changes.cambios().size());
+        assertEquals(2L, changes.ultimaSecuencia());
+    }
+
+    @Test
+    @DisplayName("Un consumidor al día recibe una lista vacía sin resync")
+    void consumidorAlDiaNoDebeResincronizar() {
+        append(2);
+
+        ClienteChangesDTO changes = feed.read(2, null, 10);
+
+        assertFalse(changes.resync());
+        assertTrue(changes.cambios().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe pedir resync si since salió del buffer, es futuro o de otra instancia")
+    void debePedirResync() {
+        append(6);
+
+        assertTrue(feed.read(1, null, 10).resync());
+        assertFalse(feed.read(2, null, 10).resync());
+        assertTrue(feed.read(7, null, 10).resync());
+        assertTrue(feed.read(5, 99L, 10).resync());
+        assertEquals(6L, feed.read(1, null, 10).ultimaSecuencia());
+    }
+
+    private void append(int count) {
+        feed.append(LongStream.rangeClosed(1, count)
+                .mapToObj(id -> ClienteEvent.created(id, "Cliente " + id, String.valueOf(id), "True"))
+                .toList());
+    }
+}
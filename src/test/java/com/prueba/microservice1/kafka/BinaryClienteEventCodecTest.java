@@ -0,0 +1,131 @@
+package com.prueba.microservice1.kafka;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario del formato binario de ClienteEvent.
+ */
+class BinaryClienteEventCodecTest {
+
+    private final BinaryClienteEventCodec binaryCodec = new BinaryClienteEventCodec();
+    private final JsonClienteEventCodec jsonCodec = new JsonClienteEventCodec();
+    private final ClienteEventDeserializer deserializer = new ClienteEventDeserializer();
+
+    @Test
+    @DisplayName("Debe reconstruir el evento con precisión de milisegundos")
+    void debeHacerRoundTrip() {
+        ClienteEvent event = new ClienteEvent("UPDATED", 123456789L, "José Lema", "1234567890", "True",
+                LocalDateTime.of(2024, 3, 15, 10, 30, 45, 123_456_789));
+
+        ClienteEvent decoded = binaryCodec.decode(binaryCodec.encode(event));
+
+        assertEquals(event.eventType(), decoded.eventType());
+        assertEquals(event.clienteId(), decoded.clienteId());
+        assertEquals(event.nombreCliente(), decoded.nombreCliente());
+        assertEquals(event.identificacion(), decoded.identificacion());
+        assertEquals(event.estado(), decoded.estado());
+        assertEquals(event.timestamp().truncatedTo(ChronoUnit.MILLIS), decoded.timestamp());
+    }
+
+    @Test
+    @DisplayName("El timestamp debe viajar como el instante real en la zona del servidor")
+    void debeCodificarTimestampEnLaZonaDelServidor() {
+        TimeZone original = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Guayaquil"));
+        try {
+            LocalDateTime timestamp = LocalDateTime.of(2024, 3, 15, 10, 30, 45);
+            byte[] payload = binaryCodec.encode(new ClienteEvent("UPDATED", 1L, null, null, null, timestamp));
+
+            // Header de 4 bytes, clienteId 1 (zigzag 2, un byte) y luego el timestamp
+            long zigzag = 0;
+            for (int i = 5, shift = 0; ; i++, shift += 7) {
+                zigzag |= (long) (payload[i] & 0x7F) << shift;
+                if ((payload[i] & 0x80) == 0) {
+                    break;
+                }
+            }
+            long epochMillis = (zigzag >>> 1) ^ -(zigzag & 1);
+
+            assertEquals(timestamp.atZone(ZoneId.of("America/Guayaquil")).toInstant().toEpochMilli(), epochMillis);
+            assertEquals(timestamp, binaryCodec.decode(payload).timestamp());
+        } finally {
+            TimeZone.setDefault(original);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe conservar campos nulos y estados no canónicos")
+    void debeConservarNulos() {
+        ClienteEvent event = new ClienteEvent("DELETED", 7L, "Marianela", null, "pendiente", null);
+
+        ClienteEvent decoded = binaryCodec.decode(binaryCodec.encode(event));
+
+        assertEquals("DELETED", decoded.eventType());
+        assertNull(decoded.identificacion());
+        assertNull(decoded.timestamp());
+        assertEquals("pendiente", decoded.estado());
+    }
+
+    @Test
+    @DisplayName("El payload binario debe ser más pequeño que el JSON")
+    void debeSerMasCompactoQueJson() {
+        ClienteEvent event = ClienteEvent.created(1500L, "Juan Osorio", "0987654321", "True");
+
+        int binario = binaryCodec.encode(event).length;
+        int json = jsonCodec.encode(event).length;
+
+        assertTrue(binario * 3 < json, "binario=" + binario + " json=" + json);
+    }
+
+    @Test
+    @DisplayName("El deserializer debe detectar ambos formatos")
+    void deserializerDebeDetectarFormato() {
+        ClienteEvent event = ClienteEvent.created(1L, "Pedro", "111", "False");
+
+        assertEquals(1L, deserializer.deserialize("t", binaryCodec.encode(event)).clienteId());
+        assertEquals(1L, deserializer.deserialize("t", jsonCodec.encode(event)).clienteId());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar versiones de esquema desconocidas")
+    void debeRechazarVersionDesconocida() {
+        byte[] payload = binaryCodec.encode(ClienteEvent.deleted(1L, "x"));
+        payload[1] = 99;
+
+        assertThrows(IllegalArgumentException.class, () -> binaryCodec.decode(payload));
+    }
+
+    @Test
+    @DisplayName("Los eventos PATCHED deben conservar solo los campos modificados")
+    void debeHacerRoundTripDeCambios() {
+        ClienteEvent event = ClienteEvent.patched(42L, Map.of("estado", "False", "telefono", "0999"));
+
+        byte[] payload = binaryCodec.encode(event);
+        ClienteEvent decoded = binaryCodec.decode(payload);
+
+        assertEquals(BinaryClienteEventCodec.VERSION, payload[1]);
+        assertEquals("PATCHED", decoded.eventType());
+        assertEquals(42L, decoded.clienteId());
+        assertNull(decoded.nombreCliente());
+        assertEquals(event.cambios(), decoded.cambios());
+        assertEquals(event.cambios(), jsonCodec.decode(jsonCodec.encode(event)).cambios());
+    }
+
+    @Test
+    @DisplayName("Los eventos sin cambios deben seguir escribiéndose en versión 1")
+    void eventosSinCambiosDebenUsarVersionUno() {
+        byte[] payload = binaryCodec.encode(ClienteEvent.created(1L, "Pedro", "111", "True"));
+
+        assertEquals(BinaryClienteEventCodec.VERSION_SIN_CAMBIOS, payload[1]);
+        assertNull(binaryCodec.decode(payload).cambios());
+    }
+}
@@ -0,0 +1,92 @@
+package com.prueba.microservice1.kafka;
+
+import com.prueba.microservice1.entity.Cliente;
+import com.prueba.microservice1.feed.ClienteChangeFeed;
+import com.prueba.microservice1.kafka.StripedEventExecutor.OverflowPolicy;
+import com.prueba.microservice1.repository.OutboxEventRepository;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test unitario del orden por clienteId cuando un envío en curso falla.
+ */
+class ClienteEventProducerTest {
+
+    @TempDir
+    Path directory;
+
+    private ClienteEventProducer producer;
+    private SpillJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        if (producer != null) {
+            producer.shutdown();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Los eventos retenidos tras un envío fallido deben ir al journal detrás de él")
+    @SuppressWarnings("unchecked")
+    void debeRetenerEventosDetrasDelEnvioEnCurso() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        journal = new SpillJournal(directory, 64 * 1024, meterRegistry);
+        ObjectProvider<SpillJournal> journalProvider = mock(ObjectProvider.class);
+        when(journalProvider.getIfAvailable()).thenReturn(journal);
+
+        KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+        CompletableFuture<SendResult<String, byte[]>> enCurso = new CompletableFuture<>();
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(enCurso);
+
+        producer = new ClienteEventProducer(kafkaTemplate, new JsonClienteEventCodec(),
+                mock(OutboxEventRepository.class), mock(PlatformTransactionManager.class), meterRegistry,
+                mock(ClienteChangeFeed.class), CircuitBreaker.ofDefaults("kafka"), Bulkhead.ofDefaults("kafka"),
+                journalProvider, 1, 100, OverflowPolicy.BLOCK, Duration.ofMillis(100), Duration.ZERO, 10000);
+
+        producer.sendClienteUpdatedEvent(cliente("ACTIVO"));
+        producer.sendClienteUpdatedEvent(cliente("INACTIVO"));
+        producer.sendClienteDeletedEvent(1L, "Ana");
+
+        // Solo el primero llega a Kafka; los demás esperan su resultado sin bloquear el carril
+        verify(kafkaTemplate, after(300).times(1)).send(any(), any(), any());
+        assertTrue(journal.isEmpty());
+
+        enCurso.completeExceptionally(new IllegalStateException("broker caído"));
+
+        List<ClienteEvent> pendientes = journal.peek(10);
+        assertEquals(List.of("UPDATED", "UPDATED", "DELETED"),
+                pendientes.stream().map(ClienteEvent::eventType).toList());
+        assertEquals("ACTIVO", pendientes.get(0).estado());
+    }
+
+    private static Cliente cliente(String estado) {
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+        cliente.setNombre("Ana");
+        cliente.setIdentificacion("0101");
+        cliente.setEstado(estado);
+        return cliente;
+    }
+}
@@ -0,0 +1,170 @@
+package com.prueba.microservice1.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario de la coalescencia de eventos por clienteId.
+ */
+class EventCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EventCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.close();
+        }
+    }
+
+    @Test
+    @DisplayName("UPDATED sucesivos deben quedar en el último estado")
+    void debeFusionarUpdatesSucesivos() {
+        List<ClienteEvent> events = new ArrayList<>();
+
+        EventCoalescer.merge(events, ClienteEvent.updated(1L, "Ana", "0101", "ACTIVO"));
+        int coalesced = EventCoalescer.merge(events, ClienteEvent.updated(1L, "Ana", "0101", "INACTIVO"));
+
+        assertEquals(1, coalesced);
+        assertEquals(1, events.size());
+        assertEquals("INACTIVO", events.get(0).estado());
+    }
+
+    @Test
+    @DisplayName("CREATED seguido de UPDATED debe quedar como CREATED con el último estado")
+    void debeFusionarUpdateEnCreated() {
+        List<ClienteEvent> events = new ArrayList<>();
+
+        EventCoalescer.merge(events, ClienteEvent.created(1L, "Ana", "0101", "ACTIVO"));
+        EventCoalescer.merge(events, ClienteEvent.updated(1L, "Ana", "0101", "INACTIVO"));
+        int coalesced = EventCoalescer.merge(events, ClienteEvent.updated(1L, "Ana María", "0101", "ACTIVO"));
+
+        assertEquals(1, coalesced);
+        assertEquals(1, events.size());
+        assertEquals("CREATED", events.get(0).eventType());
+        assertEquals("Ana María", events.get(0).nombreCliente());
+    }
+
+    @Test
+    @DisplayName("CREATED y DELETED dentro de la ventana deben anularse")
+    void debeAnularCreatedYDeleted() {
+        List<ClienteEvent> events = new ArrayList<>();
+
+        int coalesced = EventCoalescer.merge(events, ClienteEvent.created(1L, "Ana", "0101", "ACTIVO"));
+        coalesced += EventCoalescer.merge(events, ClienteEvent.updated(1L, "Ana", "0101", "INACTIVO"));
+        int anulados = EventCoalescer.merge(events, ClienteEvent.deleted(1L, "Ana"));
+        coalesced += anulados;
+
+        // El UPDATED se absorbió en el CREATED; el DELETED anula el CREATED y a sí mismo
+        assertEquals(2, anulados);
+        assertEquals(3, coalesced);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Un UPDATED no debe descartar los cambios de un PATCHED anterior")
+    void debeConservarPatchAntesDeUpdate() {
+        List<ClienteEvent> events = new ArrayList<>();
+
+        EventCoalescer.merge(events, ClienteEvent.created(1L, "Ana", "0101", "ACTIVO"));
+        EventCoalescer.merge(events, ClienteEvent.patched(1L, Map.of("edad", "31")));
+        int coalesced = EventCoalescer.merge(events, ClienteEvent.updated(1L, "Ana María", "0101", "ACTIVO"));
+
+        assertEquals(0, coalesced);
+        assertEquals(List.of("CREATED", "PATCHED", "UPDATED"), events.stream().map(ClienteEvent::eventType).toList());
+        assertEquals(Map.of("edad", "31"), events.get(1).cambios());
+    }
+
+    @Test
+    @DisplayName("PATCHED sucesivos deben unir sus cambios")
+    void debeUnirCambiosDePatches() {
+        List<ClienteEvent> events = new ArrayList<>();
+
+        EventCoalescer.merge(events, ClienteEvent.patched(1L, Map.of("edad", "31", "version", "1")));
+        EventCoalescer.merge(events, ClienteEvent.patched(1L, Map.of("estado", "INACTIVO", "version", "2")));
+
+        assertEquals(1, events.size());
+        assertEquals(Map.of("edad", "31", "estado", "INACTIVO", "version", "2"), events.get(0).cambios());
+    }
+
+    @Test
+    @DisplayName("Debe entregar al vencer la ventana conservando el orden de cada cliente")
+    void debeEntregarEnOrdenAlVencerLaVentana() throws InterruptedException {
+        List<ClienteEvent> entregados = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(3);
+        coalescer = new EventCoalescer(Duration.ofMillis(50), 100, event -> {
+            entregados.add(event);
+            latch.countDown();
+        }, meterRegistry);
+
+        coalescer.submit(ClienteEvent.updated(1L, "Ana", "0101", "ACTIVO"));
+        coalescer.submit(ClienteEvent.updated(2L, "Luis", "0202", "ACTIVO"));
+        coalescer.submit(ClienteEvent.updated(1L, "Ana", "0101", "INACTIVO"));
+        coalescer.submit(ClienteEvent.patched(1L, Map.of("edad", "31")));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        List<ClienteEvent> cliente1 = entregados.stream().filter(e -> e.clienteId() == 1L).toList();
+        assertEquals(List.of("UPDATED", "PATCHED"), cliente1.stream().map(ClienteEvent::eventType).toList());
+        assertEquals("INACTIVO", cliente1.get(0).estado());
+        assertEquals(1.0, meterRegistry.get("cliente.events.coalesced").counter().count());
+    }
+
+    @Test
+    @DisplayName("Un downstream lento no debe bloquear submit")
+    void noDebeBloquearSubmitDuranteLaEntrega() throws InterruptedException {
+        CountDownLatch entregando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        coalescer = new EventCoalescer(Duration.ofMillis(10), 100, event -> {
+            entregando.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, meterRegistry);
+
+        coalescer.submit(ClienteEvent.updated(1L, "Ana", "0101", "ACTIVO"));
+        assertTrue(entregando.await(5, TimeUnit.SECONDS));
+
+        Thread productor = new Thread(() -> coalescer.submit(ClienteEvent.updated(2L, "Luis", "0202", "ACTIVO")));
+        productor.start();
+        productor.join(1000);
+        boolean bloqueado = productor.isAlive();
+        liberar.countDown();
+
+        assertFalse(bloqueado);
+    }
+
+    @Test
+    @DisplayName("Al llegar a max-pending debe entregar antes la ventana más antigua")
+    void debeEntregarLaVentanaMasAntiguaAlLlegarAlLimite() throws InterruptedException {
+        List<ClienteEvent> entregados = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1);
+        coalescer = new EventCoalescer(Duration.ofMinutes(1), 2, event -> {
+            entregados.add(event);
+            latch.countDown();
+        }, meterRegistry);
+
+        coalescer.submit(ClienteEvent.updated(1L, "Ana", "0101", "ACTIVO"));
+        coalescer.submit(ClienteEvent.updated(2L, "Luis", "0202", "ACTIVO"));
+        coalescer.submit(ClienteEvent.updated(3L, "Eva", "0303", "ACTIVO"));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1L, entregados.get(0).clienteId());
+        assertEquals(2, coalescer.pendingKeys());
+        assertEquals(1.0, meterRegistry.get("cliente.events.coalescing.early-flush").counter().count());
+    }
+}
@@ -0,0 +1,81 @@
+package com.prueba.microservice1.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario del journal local de eventos.
+ */
+class SpillJournalTest {
+
+    private static final int SEGMENT_SIZE = 256;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Debe devolver los eventos en orden y confirmar solo el prefijo indicado")
+    void debeConservarOrdenYConfirmarPrefijo() throws IOException {
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_SIZE, new SimpleMeterRegistry())) {
+            for (long id = 1; id <= 20; id++) {
+                journal.append(ClienteEvent.updated(id, "Cliente " + id, "ID" + id, "True"));
+            }
+            assertTrue(journal.segmentCount() > 1);
+
+            journal.acknowledge(7);
+
+            List<ClienteEvent> pendientes = journal.peek(100);
+            assertEquals(13, pendientes.size());
+            assertEquals(8L, pendientes.get(0).clienteId());
+            assertEquals(20L, pendientes.get(12).clienteId());
+        }
+    }
+
+    @Test
+    @DisplayName("Al reabrir debe recuperar solo los eventos no confirmados")
+    void debeRecuperarPendientesAlReabrir() throws IOException {
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_SIZE, new SimpleMeterRegistry())) {
+            journal.append(ClienteEvent.created(1L, "Ana", "0101", "True"));
+            journal.append(ClienteEvent.patched(1L, Map.of("edad", "31")));
+            journal.append(ClienteEvent.deleted(1L, "Ana"));
+            journal.acknowledge(1);
+        }
+
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_SIZE, new SimpleMeterRegistry())) {
+            assertEquals(2, journal.pendingRecords());
+            List<ClienteEvent> pendientes = journal.peek(10);
+            assertEquals("PATCHED", pendientes.get(0).eventType());
+            assertEquals(Map.of("edad", "31"), pendientes.get(0).cambios());
+            assertEquals("DELETED", pendientes.get(1).eventType());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe borrar los segmentos consumidos que ya no son el activo")
+    void debeBorrarSegmentosConsumidos() throws IOException {
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_SIZE, new SimpleMeterRegistry())) {
+            for (long id = 1; id <= 20; id++) {
+                journal.append(ClienteEvent.updated(id, "Cliente " + id, "ID" + id, "True"));
+            }
+
+            journal.acknowledge(20);
+
+            assertTrue(journal.isEmpty());
+            assertEquals(1, journal.segmentCount());
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(1, files.count());
+            }
+        }
+    }
+}
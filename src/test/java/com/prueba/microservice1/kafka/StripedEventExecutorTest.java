@@ -0,0 +1,110 @@
+package com.prueba.microservice1.kafka;
+
+import com.prueba.microservice1.kafka.StripedEventExecutor.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario del executor particionado por clienteId.
+ */
+class StripedEventExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StripedEventExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Eventos de la misma clave deben ejecutarse en orden de encolado")
+    void debeConservarOrdenPorClave() throws InterruptedException {
+        executor = new StripedEventExecutor(4, 1000, OverflowPolicy.BLOCK, Duration.ofSeconds(1), meterRegistry);
+        List<Integer> ejecutados = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(500);
+
+        for (int i = 0; i < 500; i++) {
+            int orden = i;
+            executor.submit(42L, () -> {
+                ejecutados.add(orden);
+                latch.countDown();
+            }, () -> fail("No debe hacer spill"));
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, ejecutados.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Con política SPILL los eventos que no caben se derivan al spill")
+    void debeDerivarAlSpillConColaLlena() throws InterruptedException {
+        executor = new StripedEventExecutor(1, 1, OverflowPolicy.SPILL, Duration.ZERO, meterRegistry);
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        AtomicInteger spilled = new AtomicInteger();
+
+        // Ocupa el hilo del carril y llena su cola de capacidad 1
+        executor.submit(1L, () -> awaitQuietly(bloqueo), spilled::incrementAndGet);
+        executor.submit(1L, () -> { }, spilled::incrementAndGet);
+        executor.submit(1L, () -> { }, spilled::incrementAndGet);
+        bloqueo.countDown();
+
+        assertTrue(spilled.get() >= 1);
+        assertEquals(spilled.get(), meterRegistry.get("cliente.events.spilled").counter().count());
+    }
+
+    @Test
+    @DisplayName("Con política BLOCK los eventos que no caben tras block-timeout se derivan al spill")
+    void debeDerivarAlSpillTrasBlockTimeout() {
+        executor = new StripedEventExecutor(1, 1, OverflowPolicy.BLOCK, Duration.ofMillis(10), meterRegistry);
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        AtomicInteger spilled = new AtomicInteger();
+
+        executor.submit(1L, () -> awaitQuietly(bloqueo), spilled::incrementAndGet);
+        executor.submit(1L, () -> { }, spilled::incrementAndGet);
+        executor.submit(1L, () -> { }, spilled::incrementAndGet);
+        bloqueo.countDown();
+
+        assertTrue(spilled.get() >= 1);
+        assertEquals(spilled.get(), meterRegistry.get("cliente.events.spilled").counter().count());
+        assertEquals(0.0, meterRegistry.get("cliente.events.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Con política DROP los eventos que no caben se cuentan como rechazados")
+    void debeContarRechazadosConDrop() {
+        executor = new StripedEventExecutor(1, 1, OverflowPolicy.DROP, Duration.ZERO, meterRegistry);
+        CountDownLatch bloqueo = new CountDownLatch(1);
+
+        executor.submit(1L, () -> awaitQuietly(bloqueo), () -> { });
+        executor.submit(1L, () -> { }, () -> { });
+        executor.submit(1L, () -> { }, () -> { });
+        bloqueo.countDown();
+
+        assertTrue(meterRegistry.get("cliente.events.rejected").counter().count() >= 1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.prueba.microservice1.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga end-to-end de ClienteController contra H2 en memoria y Kafka embebido.
+ * Genera requests a tasa fija (lazo abierto) con una mezcla configurable de operaciones
+ * y reporta throughput y percentiles p50/p99/p999 por operación.
+ * La latencia se mide desde el instante programado de cada request, así una
+ * respuesta lenta no oculta la espera de las siguientes (coordinated omission).
+ *
+ * Se ejecuta con: ./gradlew loadTest (excluida de ./gradlew test).
+ * Parámetros: load.rate, load.duration, load.warmup, load.mix, load.seed, load.output.
+ */
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "logging.level.com.prueba.microservice1=WARN",
+                "spring.jpa.open-in-view=false"
+        })
+@EmbeddedKafka(partitions = 3, topics = "cliente-events", bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class ClienteLoadTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    @TempDir
+    static Path journalDir;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("kafka.journal.dir", journalDir::toString);
+    }
+
+    private enum Operation {
+        GET, LIST, POST, PUT, DELETE
+    }
+
+    @LocalServerPort
+    private int port;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong identificacionSeq = new AtomicLong(System.currentTimeMillis() % 1_000_000_000L);
+    private final IdPool ids = new IdPool();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private HttpClient httpClient;
+    private Map<Operation, OperationStats> stats;
+
+    @Test
+    @DisplayName("Carga mixta a tasa fija sobre /clientes")
+    void cargaMixtaATasaFija() throws Exception {
+        int rate = Integer.getInteger("load.rate", 200);
+        int durationSeconds = Integer.getInteger("load.duration", 30);
+        int warmupSeconds = Integer.getInteger("load.warmup", 5);
+        int seed = Integer.getInteger("load.seed", 200);
+        Map<Operation, Integer> mix = parseMix(System.getProperty("load.mix", "get=50,list=20,post=15,put=10,delete=5"));
+        Path output = Path.of(System.getProperty("load.output", "build/load-test/results.json"));
+
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(32);
+        httpClient = HttpClient.newBuilder()
+                .executor(httpExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            seedClientes(seed);
+
+            stats = newStats();
+            run(rate, warmupSeconds, mix);
+
+            stats = newStats();
+            long start = System.nanoTime();
+            run(rate, durationSeconds, mix);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            Map<String, Object> report = report(rate, durationSeconds, elapsedSeconds, mix);
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+            System.out.println(objectMapper.writeValueAsString(report));
+
+            long total = stats.values().stream().mapToLong(s -> s.histogram.getTotalCount()).sum();
+            long errors = stats.values().stream().mapToLong(s -> s.errors.sum()).sum();
+            assertTrue(total > 0, "No se completó ningún request");
+            assertTrue(errors <= total / 100, "Tasa de error mayor al 1%: " + errors + "/" + total);
+        } finally {
+            httpExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Genera requests a tasa fija durante la duración dada y espera las respuestas pendientes.
+     */
+    private void run(int rate, int durationSeconds, Map<Operation, Integer> mix) throws InterruptedException {
+        Operation[] schedule = weightedSchedule(mix);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * durationSeconds;
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+            issue(operation, intended);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void issue(Operation operation, long intended) {
+        HttpRequest request = buildRequest(operation);
+        if (request == null) {
+            return;
+        }
+        OperationStats operationStats = stats.get(operation);
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, ex) -> {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                    operationStats.histogram.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                    if (ex != null || !isExpected(operation, response.statusCode())) {
+                        operationStats.errors.increment();
+                    } else if (operation == Operation.POST) {
+                        ids.add(readId(response.body()));
+                    }
+                    inFlight.decrementAndGet();
+                });
+    }
+
+    private HttpRequest buildRequest(Operation operation) {
+        return switch (operation) {
+            case GET -> {
+                Long id = ids.random();
+                yield id == null ? null : get("/clientes/" + id);
+            }
+            case LIST -> get("/clientes?limit=50");
+            case POST -> HttpRequest.newBuilder(uri("/clientes"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(clienteJson()))
+                    .build();
+            case PUT -> {
+                Long id = ids.random();
+                yield id == null ? null : HttpRequest.newBuilder(uri("/clientes/" + id))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(clienteJson()))
+                        .build();
+            }
+            case DELETE -> {
+                Long id = ids.take();
+                yield id == null ? null : HttpRequest.newBuilder(uri("/clientes/" + id)).DELETE().build();
+            }
+        };
+    }
+
+    /**
+     * Un GET o PUT puede llegar a un id borrado en paralelo; ese 404 es esperado.
+     */
+    private static boolean isExpected(Operation operation, int status) {
+        if (status >= 200 && status < 300) {
+            return true;
+        }
+        return status == 404 && (operation == Operation.GET || operation == Operation.PUT);
+    }
+
+    private void seedClientes(int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri("/clientes"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(clienteJson()))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, response.statusCode(), response.body());
+            ids.add(readId(response.body()));
+        }
+    }
+
+    private String clienteJson() {
+        long identificacion = identificacionSeq.incrementAndGet();
+        return """
+                {"nombre":"Cliente %d","genero":"F","edad":30,"identificacion":"%d",\
+                "direccion":"Amazonas y NNUU","telefono":"097548965","contrasena":"5678","estado":"True"}"""
+                .formatted(identificacion, identificacion);
+    }
+
+    private Long readId(String body) {
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            return node.path("id").isNumber() ? node.get("id").asLong() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private Map<String, Object> report(int rate, int durationSeconds, double elapsedSeconds,
+                                       Map<Operation, Integer> mix) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", LocalDateTime.now().toString());
+        report.put("targetRate", rate);
+        report.put("durationSeconds", durationSeconds);
+        report.put("mix", mix);
+
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long errors = 0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            all.add(histogram);
+            errors += entry.getValue().errors.sum();
+            operations.put(entry.getKey().name(), summary(histogram, entry.getValue().errors.sum(), elapsedSeconds));
+        }
+        report.put("total", summary(all, errors, elapsedSeconds));
+        report.put("operations", operations);
+        return report;
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, long errors, double elapsedSeconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", Math.round(histogram.getTotalCount() / elapsedSeconds * 10) / 10.0);
+        summary.put("p50Micros", histogram.getValueAtPercentile(50));
+        summary.put("p99Micros", histogram.getValueAtPercentile(99));
+        summary.put("p999Micros", histogram.getValueAtPercentile(99.9));
+        summary.put("maxMicros", histogram.getMaxValue());
+        return summary;
+    }
+
+    private static Map<Operation, OperationStats> newStats() {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        return stats;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] entry = part.split("=");
+            weights.put(Operation.valueOf(entry[0].strip().toUpperCase()), Integer.parseInt(entry[1].strip()));
+        }
+        return weights;
+    }
+
+    private static Operation[] weightedSchedule(Map<Operation, Integer> mix) {
+        List<Operation> schedule = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        });
+        return schedule.toArray(Operation[]::new);
+    }
+
+    private static final class OperationStats {
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * Ids de clientes existentes para GET/PUT/DELETE.
+     */
+    private static final class IdPool {
+        private final List<Long> ids = new ArrayList<>();
+
+        synchronized void add(Long id) {
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+
+        synchronized Long random() {
+            return ids.isEmpty() ? null : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        synchronized Long take() {
+            if (ids.isEmpty()) {
+                return null;
+            }
+            int index = ThreadLocalRandom.current().nextInt(ids.size());
+            Long id = ids.get(index);
+            ids.set(index, ids.get(ids.size() - 1));
+            ids.remove(ids.size() - 1);
+            return id;
+        }
+    }
+}
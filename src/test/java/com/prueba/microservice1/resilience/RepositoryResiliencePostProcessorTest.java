@@ -0,0 +1,39 @@
+package com.prueba.microservice1.resilience;
+
+import com.prueba.microservice1.repository.ClienteRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario de la clasificación de métodos del repositorio en lecturas y escrituras.
+ */
+class RepositoryResiliencePostProcessorTest {
+
+    @Test
+    @DisplayName("Consultas y conteos deben ir al compartimento de lectura")
+    void debeClasificarLecturas() throws NoSuchMethodException {
+        assertTrue(RepositoryResiliencePostProcessor.isRead(ClienteRepository.class.getMethod("findById", Object.class)));
+        assertTrue(RepositoryResiliencePostProcessor.isRead(ClienteRepository.class.getMethod("existsByIdentificacion", String.class)));
+        assertTrue(RepositoryResiliencePostProcessor.isRead(ClienteRepository.class.getMethod("streamAllResponsesOrderById")));
+        assertTrue(RepositoryResiliencePostProcessor.isRead(ClienteRepository.class.getMethod("count")));
+    }
+
+    @Test
+    @DisplayName("Métodos que modifican datos deben ir al compartimento de escritura")
+    void debeClasificarEscrituras() {
+        Set<String> escrituras = Arrays.stream(ClienteRepository.class.getMethods())
+                .filter(method -> !RepositoryResiliencePostProcessor.isRead(method))
+                .map(method -> method.getName())
+                .collect(Collectors.toSet());
+
+        assertTrue(escrituras.containsAll(Set.of("save", "saveAll", "saveAndFlush", "deleteById",
+                "flush", "patch", "normalizarEstados")));
+        assertFalse(escrituras.stream().anyMatch(name -> name.startsWith("find")));
+    }
+}
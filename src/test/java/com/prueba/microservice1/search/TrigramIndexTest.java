@@ -0,0 +1,93 @@
+package com.prueba.microservice1.search;
+
+import com.prueba.microservice1.search.TrigramIndex.Hit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario del índice de trigramas.
+ */
+class TrigramIndexTest {
+
+    private TrigramIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex<>();
+        index.put(1L, "Jose Lema", "Jose Lema", "1712345678");
+        index.put(2L, "Marianela Montalvo", "Marianela Montalvo", "0912345678");
+        index.put(3L, "Juan Osorio", "Juan Osorio", "1798765432");
+        index.put(4L, "María José Pérez", "María José Pérez", "0101010101");
+    }
+
+    @Test
+    @DisplayName("Un prefijo debe encontrar el nombre (autocompletado)")
+    void debeEncontrarPorPrefijo() {
+        List<Hit<String>> hits = index.search("jua", 10, 0.5);
+
+        assertFalse(hits.isEmpty());
+        assertEquals("Juan Osorio", hits.get(0).value());
+    }
+
+    @Test
+    @DisplayName("La búsqueda ignora mayúsculas y acentos y prioriza el prefijo del nombre")
+    void debeIgnorarAcentosYPriorizarPrefijo() {
+        List<Hit<String>> hits = index.search("JOSE", 10, 0.5);
+
+        assertEquals(List.of("Jose Lema", "María José Pérez"), hits.stream().map(Hit::value).toList());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    @DisplayName("Debe buscar también por identificación")
+    void debeBuscarPorIdentificacion() {
+        List<Hit<String>> hits = index.search("091234", 10, 0.5);
+
+        assertEquals("Marianela Montalvo", hits.get(0).value());
+    }
+
+    @Test
+    @DisplayName("Actualizar y eliminar mantienen el índice sincronizado")
+    void debeActualizarYEliminar() {
+        index.put(3L, "Juana Castro", "Juana Castro", "1798765432");
+        assertTrue(index.search("osorio", 10, 0.5).isEmpty());
+        assertEquals("Juana Castro", index.search("castro", 10, 0.5).get(0).value());
+
+        index.remove(3L);
+        assertTrue(index.search("castro", 10, 0.5).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("putIfAbsent no pisa un documento ya indexado")
+    void putIfAbsentNoReemplaza() {
+        index.putIfAbsent(1L, "Otro", "Otro", "000");
+
+        assertEquals("Jose Lema", index.search("lema", 10, 0.5).get(0).value());
+    }
+
+    @Test
+    @DisplayName("Durante la reconstrucción putIfAbsent no revive un documento eliminado")
+    void putIfAbsentNoReviveEliminadosDuranteReconstruccion() {
+        index.beginRebuild();
+        index.remove(3L);
+        index.putIfAbsent(3L, "Juan Osorio", "Juan Osorio", "1798765432");
+        index.endRebuild();
+
+        assertTrue(index.search("osorio", 10, 0.5).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Debe respetar el límite de resultados")
+    void debeRespetarLimite() {
+        List<Hit<String>> hits = index.search("ma", 1, 0.5);
+
+        assertEquals(1, hits.size());
+    }
+}
@@ -0,0 +1,73 @@
+package com.prueba.microservice1.timing;
+
+import com.prueba.microservice1.timing.RequestTiming.Phase;
+import com.prueba.microservice1.timing.SlowRequestLog.SlowRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.clear();
+    }
+
+    @Test
+    void phaseSinRequestMedidoNoFalla() {
+        try (RequestTiming.Scope ignored = RequestTiming.phase(Phase.DB)) {
+            RequestTiming.record(Phase.MAPPING, 1_000L);
+        }
+        assertNull(RequestTiming.current());
+    }
+
+    @Test
+    void headerIncluyeFasesMedidasYTotal() {
+        RequestTiming timing = RequestTiming.start();
+        RequestTiming.record(Phase.DB, 2_500_000L);
+        RequestTiming.record(Phase.KAFKA, 500_000L);
+
+        String header = timing.toHeaderValue();
+
+        assertTrue(header.startsWith("db;dur=2.500, kafka;dur=0.500, app;dur="), header);
+        assertFalse(header.contains("map;"));
+    }
+
+    @Test
+    void finishAsignaSerializacionDespuesDelHandler() {
+        RequestTiming timing = RequestTiming.start();
+        timing.markHandlerCompleted();
+
+        long total = timing.finish();
+
+        Map<String, Double> phases = timing.phasesMillis();
+        assertTrue(total > 0);
+        assertTrue(phases.get("ser") >= 0.0);
+        assertEquals(0.0, phases.get("db"));
+    }
+
+    @Test
+    void slowRequestLogRetieneSoloLosUltimos() {
+        SlowRequestLog log = new SlowRequestLog(Duration.ofMillis(10), 2);
+        assertFalse(log.isSlow(Duration.ofMillis(5).toNanos()));
+        assertTrue(log.isSlow(Duration.ofMillis(10).toNanos()));
+
+        log.add(slow(15));
+        log.add(slow(30));
+        log.add(slow(20));
+
+        assertEquals(3, log.total());
+        assertEquals(2, log.snapshot().size());
+        assertEquals(30.0, log.snapshot().get(0).totalMillis());
+        assertEquals(20.0, log.snapshot().get(1).totalMillis());
+    }
+
+    private static SlowRequest slow(double millis) {
+        return new SlowRequest(Instant.now(), "GET", "/clientes", 200, millis, Map.of());
+    }
+}
@@ -0,0 +1,49 @@
+package com.prueba.microservice1.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitario del filtro de Bloom.
+ */
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Nunca debe dar falsos negativos")
+    void noDebeDarFalsosNegativos() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("ID-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("ID-" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("La tasa de falsos positivos debe respetar la configurada")
+    void debeRespetarTasaDeFalsosPositivos() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(String.format("%010d", i));
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(String.format("%010d", i))) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar parámetros inválidos")
+    void debeRechazarParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}